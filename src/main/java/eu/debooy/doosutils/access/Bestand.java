@@ -19,20 +19,42 @@ package eu.debooy.doosutils.access;
 import eu.debooy.doosutils.exception.BestandException;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
-import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
@@ -42,8 +64,163 @@ public final class Bestand {
   private static final  ResourceBundle  resourceBundle  =
       ResourceBundle.getBundle("DoosUtils-file", Locale.getDefault());
 
+  private static final  int DIGEST_BUFFER     = 1024 * 1024;
+  private static final  int VERGELIJK_BLOK    = 16 * 1024 * 1024;
+  private static final  int VERGELIJK_BUFFER  = 1024 * 1024;
+
   private Bestand() {}
 
+  /**
+   * Verwijdert een directory met Files.walkFileTree. In parallel wordt elke
+   * subdirectory een eigen taak. De directory zelf wordt pas verwijderd als
+   * de taken van zijn subdirectories klaar zijn.
+   */
+  private static final class Verwijderaar extends RecursiveAction {
+    private static final  long  serialVersionUID  = 1L;
+
+    private final transient Path          map;
+    private final           boolean       parallel;
+    private final transient Verwijdering  verwijdering;
+
+    private Verwijderaar(Path map, Verwijdering verwijdering,
+                         boolean parallel) {
+      this.map          = map;
+      this.parallel     = parallel;
+      this.verwijdering = verwijdering;
+    }
+
+    @Override
+    protected void compute() {
+      var taken = new ArrayList<Verwijderaar>();
+      try {
+        Files.walkFileTree(map, new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+            if (null != e) {
+              verwijdering.fout(dir, e);
+            }
+            if (dir.equals(map)) {
+              taken.forEach(ForkJoinTask::join);
+            }
+            try {
+              Files.delete(dir);
+              verwijdering.mappen.increment();
+            } catch (IOException f) {
+              verwijdering.fout(dir, f);
+            }
+
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir,
+                                                   BasicFileAttributes attrs) {
+            if (parallel && !dir.equals(map)) {
+              var taak  = new Verwijderaar(dir, verwijdering, true);
+              taak.fork();
+              taken.add(taak);
+              return FileVisitResult.SKIP_SUBTREE;
+            }
+
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file,
+                                           BasicFileAttributes attrs) {
+            try {
+              Files.delete(file);
+              verwijdering.bestanden.increment();
+              verwijdering.bytes.add(attrs.size());
+            } catch (IOException e) {
+              verwijdering.fout(file, e);
+            }
+
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFileFailed(Path file, IOException e) {
+            verwijdering.fout(file, e);
+
+            return FileVisitResult.CONTINUE;
+          }
+        });
+      } catch (IOException e) {
+        verwijdering.fout(map, e);
+      }
+    }
+  }
+
+  /**
+   * Het resultaat van verwijder. De tellers worden door alle threads
+   * bijgewerkt.
+   */
+  public static final class Verwijdering {
+    private final LongAdder               bestanden = new LongAdder();
+    private final LongAdder               bytes     = new LongAdder();
+    private final Map<Path, IOException>  fouten    =
+        new ConcurrentSkipListMap<>();
+    private final LongAdder               mappen    = new LongAdder();
+
+    private Verwijdering() {}
+
+    private void fout(Path pad, IOException e) {
+      fouten.putIfAbsent(pad, e);
+    }
+
+    /**
+     * @return het aantal verwijderde bestanden.
+     */
+    public long getBestanden() {
+      return bestanden.sum();
+    }
+
+    /**
+     * @return de grootte van de verwijderde bestanden.
+     */
+    public long getBytes() {
+      return bytes.sum();
+    }
+
+    /**
+     * @return de bestanden en directories die niet verwijderd konden worden
+     *         gesorteerd op pad.
+     */
+    public Map<Path, IOException> getFouten() {
+      return Collections.unmodifiableMap(fouten);
+    }
+
+    /**
+     * @return het aantal verwijderde directories.
+     */
+    public long getMappen() {
+      return mappen.sum();
+    }
+
+    public boolean isGelukt() {
+      return fouten.isEmpty();
+    }
+  }
+
+  private static void controleerBestand(Path bestand)
+      throws BestandException {
+    if (!Files.exists(bestand)) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_BEST_ONBEKEND),
+                                   bestand));
+    }
+    if (!Files.isRegularFile(bestand)) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_BEST_FOUT),
+                                   bestand));
+    }
+  }
+
+  /**
+   * Kopieert lijn per lijn om de charset te veranderen. Elke lijn krijgt het
+   * regeleinde van het platform. De streams blijven open.
+   */
   public static void copy(BufferedReader invoer, BufferedWriter uitvoer)
       throws BestandException {
     String  data;
@@ -57,42 +234,310 @@ public final class Bestand {
     }
   }
 
+  /**
+   * Kopieert het bestand byte per byte. Gebruik copy(BufferedReader,
+   * BufferedWriter) om de charset of de regeleindes te veranderen.
+   */
   public static void copy(File invoer, File uitvoer)
       throws BestandException {
-    copy(openInvoerBestand(invoer), openUitvoerBestand(uitvoer));
+    copy(invoer.toPath(), uitvoer.toPath(), false);
+  }
+
+  /**
+   * Kopieert het bestand byte per byte.
+   *
+   * @param invoer
+   * @param uitvoer
+   * @param attributen true om ook het tijdstip en de rechten te kopieren.
+   * @throws BestandException
+   */
+  public static void copy(File invoer, File uitvoer, boolean attributen)
+      throws BestandException {
+    copy(invoer.toPath(), uitvoer.toPath(), attributen);
+  }
+
+  /**
+   * Kopieert het bestand en berekent tegelijk de digest van de gekopieerde
+   * bytes. Het bestand wordt maar 1 keer gelezen.
+   *
+   * @param invoer
+   * @param uitvoer
+   * @param algoritme zie Digest.getInstance(String).
+   * @return de digest.
+   * @throws BestandException
+   */
+  public static byte[] copy(File invoer, File uitvoer, String algoritme)
+      throws BestandException {
+    return copy(invoer.toPath(), uitvoer.toPath(),
+                Digest.getInstance(algoritme));
+  }
+
+  /**
+   * Kopieert het bestand met FileChannel.transferTo zodat het
+   * besturingssysteem de bytes kan kopieren zonder dat ze door de JVM gaan.
+   */
+  private static void copy(Path invoer, Path uitvoer, boolean attributen)
+      throws BestandException {
+    controleerBestand(invoer);
+
+    try {
+      if (Files.exists(uitvoer) && Files.isSameFile(invoer, uitvoer)) {
+        return;
+      }
+
+      try (var bron = BestandFabriek.openKanaal(invoer);
+           var doel = BestandFabriek.openUitvoerKanaal(uitvoer, false)) {
+        var grootte = bron.size();
+        var positie = 0L;
+        while (positie < grootte) {
+          var gekopieerd  = bron.transferTo(positie, grootte - positie, doel);
+          if (gekopieerd <= 0) {
+            break;
+          }
+          positie  += gekopieerd;
+        }
+      }
+
+      if (attributen) {
+        kopieerAttributen(invoer, uitvoer);
+      }
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+  }
+
+  /**
+   * Leest de bytes in een direct ByteBuffer en geeft ze aan de digest voor ze
+   * geschreven worden.
+   */
+  private static byte[] copy(Path invoer, Path uitvoer, Digest digest)
+      throws BestandException {
+    controleerBestand(invoer);
+
+    try {
+      if (Files.exists(uitvoer) && Files.isSameFile(invoer, uitvoer)) {
+        return digest(invoer, digest);
+      }
+
+      try (var bron = BestandFabriek.openKanaal(invoer);
+           var doel = BestandFabriek.openUitvoerKanaal(uitvoer, false)) {
+        var buffer  = maakBuffer(bron.size());
+        while (bron.read(buffer) >= 0) {
+          buffer.flip();
+          digest.update(buffer.duplicate());
+          while (buffer.hasRemaining()) {
+            doel.write(buffer);
+          }
+          buffer.clear();
+        }
+      }
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+
+    return digest.digest();
   }
 
   public static void copy(String invoer, String uitvoer)
       throws BestandException {
-    copy(openInvoerBestand(invoer), openUitvoerBestand(uitvoer));
+    copy(Paths.get(invoer), Paths.get(uitvoer), false);
+  }
+
+  public static void copy(String invoer, String uitvoer, boolean attributen)
+      throws BestandException {
+    copy(Paths.get(invoer), Paths.get(uitvoer), attributen);
+  }
+
+  /**
+   * Berekent de digest van alle bestanden. Met meer dan 1 thread worden de
+   * bestanden parallel gelezen.
+   *
+   * @param bestanden
+   * @param algoritme zie Digest.getInstance(String).
+   * @param threads
+   * @return de digest per bestand in de volgorde van bestanden.
+   * @throws BestandException
+   */
+  public static Map<String, byte[]> digest(Collection<String> bestanden,
+                                           String algoritme, int threads)
+      throws BestandException {
+    Digest.getInstance(algoritme);
+
+    var digests = new LinkedHashMap<String, byte[]>();
+    if (threads < 2 || bestanden.size() < 2) {
+      for (var bestand : bestanden) {
+        digests.put(bestand, digest(bestand, algoritme));
+      }
+      return digests;
+    }
+
+    var pool  = Executors.newFixedThreadPool(Math.min(threads,
+                                                      bestanden.size()));
+    var taken = new LinkedHashMap<String, Future<byte[]>>();
+    try {
+      for (var bestand : bestanden) {
+        taken.put(bestand, pool.submit(() -> digest(bestand, algoritme)));
+      }
+      for (var taak : taken.entrySet()) {
+        digests.put(taak.getKey(), wacht(taak.getValue()));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    return digests;
   }
 
+  /**
+   * Berekent de digest van het bestand. Het bestand wordt via een FileChannel
+   * in een direct ByteBuffer gelezen.
+   *
+   * @param bestand
+   * @param algoritme zie Digest.getInstance(String).
+   * @return de digest.
+   * @throws BestandException
+   */
+  public static byte[] digest(File bestand, String algoritme)
+      throws BestandException {
+    return digest(bestand.toPath(), Digest.getInstance(algoritme));
+  }
+
+  private static byte[] digest(Path bestand, Digest digest)
+      throws BestandException {
+    controleerBestand(bestand);
+
+    try (var kanaal = BestandFabriek.openKanaal(bestand)) {
+      var buffer  = maakBuffer(kanaal.size());
+      while (kanaal.read(buffer) >= 0) {
+        buffer.flip();
+        digest.update(buffer);
+        buffer.clear();
+      }
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+
+    return digest.digest();
+  }
+
+  public static byte[] digest(String bestand, String algoritme)
+      throws BestandException {
+    return digest(Paths.get(bestand), Digest.getInstance(algoritme));
+  }
+
+  /**
+   * Vergelijkt lijn per lijn zodat de regeleindes (\n, \r of \r\n) geen
+   * verschil maken. De readers blijven open.
+   */
   public static boolean equals(BufferedReader bestandA, BufferedReader bestandB)
       throws BestandException {
     String  dataA;
-    String  dataB;
 
     try {
       while (null != (dataA = bestandA.readLine())) {
-        dataB = bestandB.readLine();
-        if (!dataA.equals(dataB)) {
+        if (!dataA.equals(bestandB.readLine())) {
           return false;
         }
       }
+
+      return null == bestandB.readLine();
     } catch (IOException e) {
       throw new BestandException(e);
     }
-    return true;
   }
 
+  /**
+   * Vergelijkt de bestanden byte per byte. Bestanden met een verschillende
+   * grootte worden niet gelezen. Gebruik equalsTekst om de regeleindes te
+   * negeren.
+   */
   public static boolean equals(File bestandA, File bestandB)
       throws BestandException{
-    return equals(openInvoerBestand(bestandA), openInvoerBestand(bestandB));
+    return equals(bestandA.toPath(), bestandB.toPath());
+  }
+
+  private static boolean equals(Path bestandA, Path bestandB)
+      throws BestandException {
+    controleerBestand(bestandA);
+    controleerBestand(bestandB);
+
+    try {
+      if (Files.size(bestandA) != Files.size(bestandB)) {
+        return false;
+      }
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+
+    return verschil(bestandA, bestandB) < 0;
   }
 
   public static boolean equals(String bestandA, String bestandB)
       throws BestandException {
-    return equals(openInvoerBestand(bestandA), openInvoerBestand(bestandB));
+    return equals(Paths.get(bestandA), Paths.get(bestandB));
+  }
+
+  /**
+   * Vergelijkt de bestanden lijn per lijn in de standaard charset zodat de
+   * regeleindes geen verschil maken. De bestanden worden gesloten.
+   */
+  public static boolean equalsTekst(File bestandA, File bestandB)
+      throws BestandException {
+    try (var lezerA = openInvoerBestand(bestandA);
+         var lezerB = openInvoerBestand(bestandB)) {
+      return equals(lezerA, lezerB);
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+  }
+
+  public static boolean equalsTekst(String bestandA, String bestandB)
+      throws BestandException {
+    return equalsTekst(new File(bestandA), new File(bestandB));
+  }
+
+  /**
+   * Een bestand in deze charset kan op een willekeurige byte gesplitst worden
+   * en daarna op het volgende regeleinde verder gelezen worden. Dit geldt voor
+   * UTF-8 en voor de charsets met 1 byte per teken.
+   */
+  static boolean isSplitsbaar(Charset charset) {
+    if (!charset.canEncode()
+        || !Arrays.equals("\n\r".getBytes(charset),
+                          new byte[] {'\n', '\r'})) {
+      return false;
+    }
+
+    return StandardCharsets.UTF_8.equals(charset)
+            || charset.newEncoder().maxBytesPerChar() <= 1.0F;
+  }
+
+  private static void kopieerAttributen(Path invoer, Path uitvoer)
+      throws IOException {
+    if (null != Files.getFileAttributeView(invoer,
+                                           PosixFileAttributeView.class)
+        && null != Files.getFileAttributeView(uitvoer,
+                                              PosixFileAttributeView.class)) {
+      Files.setPosixFilePermissions(uitvoer,
+                                    Files.getPosixFilePermissions(invoer));
+    }
+    Files.setLastModifiedTime(uitvoer, Files.getLastModifiedTime(invoer));
+  }
+
+  private static void lees(FileChannel kanaal, byte[] buffer, long positie,
+                           int aantal)
+      throws IOException {
+    var venster = ByteBuffer.wrap(buffer, 0, aantal);
+    while (venster.hasRemaining()) {
+      if (kanaal.read(venster, positie + venster.position()) < 0) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  private static ByteBuffer maakBuffer(long grootte) {
+    return ByteBuffer.allocateDirect(
+        (int) Math.max(1, Math.min(DIGEST_BUFFER, grootte)));
   }
 
   public static BufferedReader openInvoerBestand(File bestand)
@@ -110,10 +555,9 @@ public final class Bestand {
                                                  String bestand)
       throws BestandException {
     try {
-      return new BufferedReader(
-          new InputStreamReader(classLoader.getResourceAsStream(bestand),
-                                Charset.defaultCharset().name()));
-    } catch (UnsupportedEncodingException e) {
+      return BestandFabriek.openLezer(classLoader.getResourceAsStream(bestand),
+                                      Charset.defaultCharset().name());
+    } catch (IOException e) {
       throw new BestandException(e);
     }
   }
@@ -123,8 +567,9 @@ public final class Bestand {
     try {
       return new LineNumberReader(
           new InputStreamReader(
-              new FileInputStream(bestand), charSet));
-    } catch (FileNotFoundException | UnsupportedEncodingException e) {
+              BestandFabriek.openInvoer(bestand.toPath()), charSet),
+          BestandFabriek.getBufferGrootte());
+    } catch (IOException e) {
       throw new BestandException(e);
     }
   }
@@ -146,9 +591,9 @@ public final class Bestand {
                                                       String charSet)
       throws BestandException {
     try {
-      return new BufferedReader(new InputStreamReader(
-          clazz.getResourceAsStream(bestand), charSet));
-    } catch (UnsupportedEncodingException e) {
+      return BestandFabriek.openLezer(clazz.getResourceAsStream(bestand),
+                                      charSet);
+    } catch (IOException e) {
       throw new BestandException(e);
     }
   }
@@ -185,10 +630,8 @@ public final class Bestand {
                                                   boolean append)
       throws BestandException {
     try {
-      return new BufferedWriter(
-               new OutputStreamWriter(
-                 new FileOutputStream(bestand, append), charSet));
-    } catch (FileNotFoundException | UnsupportedEncodingException e) {
+      return BestandFabriek.openSchrijver(bestand.toPath(), charSet, append);
+    } catch (IOException e) {
       throw new BestandException(e);
     }
   }
@@ -221,29 +664,240 @@ public final class Bestand {
     }
   }
 
+  /**
+   * Geeft de positie van de eerste byte die verschilt. Als het ene bestand
+   * het begin van het andere is dan is dit de grootte van het kleinste
+   * bestand. Grote bestanden worden in blokken parallel vergeleken.
+   *
+   * @param bestandA
+   * @param bestandB
+   * @return -1 als de bestanden gelijk zijn.
+   * @throws BestandException
+   */
+  public static long verschil(File bestandA, File bestandB)
+      throws BestandException {
+    return verschil(bestandA.toPath(), bestandB.toPath());
+  }
+
+  private static long verschil(Path bestandA, Path bestandB)
+      throws BestandException {
+    controleerBestand(bestandA);
+    controleerBestand(bestandB);
+
+    try {
+      if (Files.isSameFile(bestandA, bestandB)) {
+        return -1;
+      }
+
+      try (var kanaalA = BestandFabriek.openKanaal(bestandA);
+           var kanaalB = BestandFabriek.openKanaal(bestandB)) {
+        var lengte  = Math.min(kanaalA.size(), kanaalB.size());
+        var positie =
+            lengte > VERGELIJK_BLOK
+                && Runtime.getRuntime().availableProcessors() > 1
+              ? verschilParallel(kanaalA, kanaalB, lengte)
+              : verschil(kanaalA, kanaalB, 0, lengte);
+        if (positie >= 0 || kanaalA.size() == kanaalB.size()) {
+          return positie;
+        }
+
+        return lengte;
+      }
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+  }
+
+  private static long verschil(FileChannel kanaalA, FileChannel kanaalB,
+                               long begin, long einde)
+      throws IOException {
+    var bufferA = new byte[(int) Math.min(VERGELIJK_BUFFER, einde - begin)];
+    var bufferB = new byte[bufferA.length];
+    var positie = begin;
+    while (positie < einde) {
+      var aantal    = (int) Math.min(bufferA.length, einde - positie);
+      lees(kanaalA, bufferA, positie, aantal);
+      lees(kanaalB, bufferB, positie, aantal);
+      var verschil  = Arrays.mismatch(bufferA, 0, aantal, bufferB, 0, aantal);
+      if (verschil >= 0) {
+        return positie + verschil;
+      }
+      positie  += aantal;
+    }
+
+    return -1;
+  }
+
+  public static long verschil(String bestandA, String bestandB)
+      throws BestandException {
+    return verschil(Paths.get(bestandA), Paths.get(bestandB));
+  }
+
+  /**
+   * Vergelijkt de blokken tot er geen meer zijn. Elke thread die dit doet
+   * neemt het volgende blok. Een blok na het eerste gevonden verschil wordt
+   * niet meer gelezen.
+   */
+  private static long verschil(FileChannel kanaalA, FileChannel kanaalB,
+                               long lengte, AtomicLong volgende,
+                               AtomicLong eerste)
+      throws IOException {
+    long  begin;
+    while ((begin = volgende.getAndAdd(VERGELIJK_BLOK)) < lengte
+            && begin < eerste.get()) {
+      var verschil  = verschil(kanaalA, kanaalB, begin,
+                               Math.min(begin + VERGELIJK_BLOK, lengte));
+      if (verschil >= 0) {
+        return eerste.accumulateAndGet(verschil, Math::min);
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Vergelijkt de blokken met een eigen pool zodat de blokkerende reads de
+   * common ForkJoinPool niet bezet houden.
+   */
+  private static long verschilParallel(FileChannel kanaalA,
+                                       FileChannel kanaalB, long lengte)
+      throws BestandException {
+    var blokken   = (lengte + VERGELIJK_BLOK - 1) / VERGELIJK_BLOK;
+    var aantal    = (int) Math.min(Runtime.getRuntime()
+                                          .availableProcessors(),
+                                   blokken);
+    var eerste    = new AtomicLong(Long.MAX_VALUE);
+    var pool      = Executors.newFixedThreadPool(aantal);
+    var taken     = new ArrayList<Future<Long>>(aantal);
+    var volgende  = new AtomicLong();
+    try {
+      for (var i = 0; i < aantal; i++) {
+        taken.add(pool.submit(() -> verschil(kanaalA, kanaalB, lengte,
+                                             volgende, eerste)));
+      }
+      for (var taak : taken) {
+        wacht(taak);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+
+    return eerste.get() == Long.MAX_VALUE ? -1 : eerste.get();
+  }
+
+  private static <T> T wacht(Future<T> taak) throws BestandException {
+    try {
+      return taak.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BestandException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof BestandException) {
+        throw (BestandException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new BestandException(e.getCause());
+    }
+  }
+
+  /**
+   * Verwijdert het bestand of de directory met alles wat erin staat. Een
+   * symbolische link wordt verwijderd zonder de link te volgen. Een fout
+   * stopt het verwijderen niet. Als er iets niet verwijderd kon worden dan
+   * volgt er op het einde een BestandException met de eerste fout als
+   * oorzaak en de andere fouten als suppressed. Een directory die niet leeg
+   * is, is meestal het gevolg van een andere fout. Een
+   * DirectoryNotEmptyException wordt daarom enkel de oorzaak als er geen
+   * andere fout is. Gebruik verwijder om de fouten zelf te behandelen.
+   *
+   * @param bestand
+   * @throws BestandException als het bestand niet bestaat of als er iets
+   *         niet verwijderd kon worden.
+   */
   public static void delete(File bestand) throws BestandException {
-    if (!bestand.exists()) {
+    delete(bestand, 1);
+  }
+
+  /**
+   * Met meer dan 1 thread worden de subdirectories in een ForkJoinPool
+   * parallel verwijderd.
+   */
+  public static void delete(File bestand, int threads)
+      throws BestandException {
+    var fouten  = verwijder(bestand, threads).getFouten();
+    if (fouten.isEmpty()) {
+      return;
+    }
+
+    var eerste  = fouten.entrySet().stream()
+                        .filter(e -> !(e.getValue()
+                                       instanceof DirectoryNotEmptyException))
+                        .findFirst()
+                        .orElse(fouten.entrySet().iterator().next());
+    var fout    = new BestandException(MessageFormat.format(
+        resourceBundle.getString(BestandConstants.ERR_BEST_VERWIJDER),
+                                 eerste.getKey()), eerste.getValue());
+    fouten.values().stream().filter(e -> e != eerste.getValue())
+          .forEach(fout::addSuppressed);
+
+    throw fout;
+  }
+
+  public static void delete(String bestand) throws BestandException {
+    delete(new File(bestand));
+  }
+
+  public static void delete(String bestand, int threads)
+      throws BestandException {
+    delete(new File(bestand), threads);
+  }
+
+  /**
+   * Verwijdert zoals delete maar geeft de fouten terug in plaats van een
+   * BestandException.
+   *
+   * @param bestand
+   * @return wat er verwijderd is en wat niet verwijderd kon worden.
+   * @throws BestandException als het bestand niet bestaat.
+   */
+  public static Verwijdering verwijder(File bestand) throws BestandException {
+    return verwijder(bestand, 1);
+  }
+
+  public static Verwijdering verwijder(File bestand, int threads)
+      throws BestandException {
+    var pad = bestand.toPath();
+    if (!Files.exists(pad, LinkOption.NOFOLLOW_LINKS)) {
       throw new BestandException(MessageFormat.format(
           resourceBundle.getString(BestandConstants.ERR_BEST_ONBEKEND),
                                                       bestand.getName()));
     }
 
-    if (bestand.isDirectory()) {
-      for (File file : bestand.listFiles()) {
-        delete(file);
-      }
-    } else {
+    var verwijdering  = new Verwijdering();
+    var taak          = new Verwijderaar(pad, verwijdering, threads > 1);
+    if (threads > 1) {
+      var pool  = new ForkJoinPool(threads);
       try {
-        Files.delete(bestand.toPath());
-      } catch (IOException e) {
-        throw new BestandException(MessageFormat.format(
-            resourceBundle.getString(BestandConstants.ERR_BEST_VERWIJDER),
-                                                        bestand.getName()));
+        pool.invoke(taak);
+      } finally {
+        pool.shutdown();
       }
+    } else {
+      taak.invoke();
     }
+
+    return verwijdering;
   }
 
-  public static void delete(String bestand) throws BestandException {
-    delete(new File(bestand));
+  public static Verwijdering verwijder(String bestand)
+      throws BestandException {
+    return verwijder(new File(bestand));
+  }
+
+  public static Verwijdering verwijder(String bestand, int threads)
+      throws BestandException {
+    return verwijder(new File(bestand), threads);
   }
 }
@@ -41,13 +41,27 @@ public class BestandConstants {
   public static final String  ERR_CSV_GEEN_KOLOMMEN = "csv.geen.kolommen";
   public static final String  ERR_CSV_KOLOM_AANTAL  = "csv.kolommen.ongelijk";
   public static final String  ERR_CSV_KOLOM_FOUT    = "csv.kolommen.foutief";
+  public static final String  ERR_CSV_ONBEKEND      = "csv.kolom.onbekend";
+  public static final String  ERR_CSV_VELD_FOUT     = "csv.veld.foutief";
+
+  public static final String  ERR_DIGEST_ONBEKEND   = "digest.onbekend";
 
   public static final String  ERR_JSON_ERROR        = "json.fout";
+  public static final String  ERR_JSON_LIJN         = "json.lijn";
+  public static final String  ERR_JSON_PAD          = "json.pad";
+  public static final String  ERR_JSON_PADEN        = "json.paden";
+  public static final String  ERR_JSON_STREAMING    = "json.streaming";
+  public static final String  ERR_JSON_STRUCTUUR    = "json.structuur";
+  public static final String  ERR_JSON_SYNTAX       = "json.syntax";
 
   public static final String  ERR_MAP_FOUT          = "map.fout";
   public static final String  ERR_MAP_ONBEKEND      = "map.onbekend";
 
+  public static final String  ERR_ZIP_BUITEN        = "zip.buiten";
+  public static final String  ERR_ZIP_READONLY      = "zip.readonly";
+
   public static final String  EXT_CSV   = ".csv";
+  public static final String  EXT_GZ    = ".gz";
   public static final String  EXT_JSON  = ".json";
   public static final String  EXT_PGN   = ".pgn";
   public static final String  EXT_TEX   = ".tex";
@@ -0,0 +1,367 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipFile;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Maakt de streams, readers, writers en channels voor alle bestanden. De
+ * grootte van de buffers en de extra OpenOptions (bv. DSYNC of SPARSE)
+ * gelden voor alle bestanden die daarna geopend worden.
+ *
+ * Een bestand in een zip wordt rechtstreeks uit de ZipFile gelezen zonder
+ * het uit te pakken. Gecomprimeerde bestanden worden bij het lezen en
+ * schrijven met een buffer van bufferGrootte (de)comprimeerd.
+ */
+public final class BestandFabriek {
+  public static final int STANDAARD_BUFFER  = 8192;
+
+  private static volatile int           bufferGrootte = STANDAARD_BUFFER;
+  private static volatile OpenOption[]  leesOpties    = new OpenOption[0];
+  private static volatile OpenOption[]  schrijfOpties = new OpenOption[0];
+
+  private BestandFabriek() {}
+
+  /**
+   * Een InputStream op een entry die ook de ZipFile sluit.
+   */
+  private static final class ZipInvoer extends FilterInputStream {
+    private final ZipFile zipFile;
+
+    private ZipInvoer(ZipFile zipFile, InputStream invoer) {
+      super(invoer);
+      this.zipFile  = zipFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        zipFile.close();
+      }
+    }
+  }
+
+  /**
+   * Bepaalt de compressie van een bestand dat gelezen wordt voor AUTOMATISCH.
+   * Een bestand dat met de GZIP magic bytes begint is GZIP. Een leeg of nieuw
+   * bestand is GZIP als de naam op .gz eindigt.
+   */
+  public static Compressie bepaalCompressie(Path bestand,
+                                            Compressie compressie)
+      throws IOException {
+    if (Compressie.AUTOMATISCH != compressie) {
+      return compressie;
+    }
+
+    if (Files.isRegularFile(bestand) && Files.size(bestand) > 0) {
+      try (var invoer = openInvoer(bestand)) {
+        return isGzip(invoer.readNBytes(2)) ? Compressie.GZIP
+                                            : Compressie.GEEN;
+      }
+    }
+
+    return volgensNaam(bestand);
+  }
+
+  /**
+   * Bepaalt de compressie van een bestand dat geschreven wordt voor
+   * AUTOMATISCH. Enkel bij append telt de bestaande inhoud. Een bestand dat
+   * overschreven wordt is GZIP als de naam op .gz eindigt.
+   */
+  public static Compressie bepaalCompressie(Path bestand,
+                                            Compressie compressie,
+                                            boolean append)
+      throws IOException {
+    if (append) {
+      return bepaalCompressie(bestand, compressie);
+    }
+    if (Compressie.AUTOMATISCH != compressie) {
+      return compressie;
+    }
+
+    return volgensNaam(bestand);
+  }
+
+  public static int getBufferGrootte() {
+    return bufferGrootte;
+  }
+
+  public static OpenOption[] getLeesOpties() {
+    return Arrays.copyOf(leesOpties, leesOpties.length);
+  }
+
+  public static OpenOption[] getSchrijfOpties() {
+    return Arrays.copyOf(schrijfOpties, schrijfOpties.length);
+  }
+
+  private static boolean isGzip(byte[] magic) {
+    return magic.length == 2
+        && (magic[0] & 0xff) == (GZIPInputStream.GZIP_MAGIC & 0xff)
+        && (magic[1] & 0xff) == (GZIPInputStream.GZIP_MAGIC >> 8);
+  }
+
+  /**
+   * Decomprimeert de invoer. Met AUTOMATISCH wordt GZIP aan de eerste bytes
+   * herkend.
+   */
+  public static InputStream openInvoer(InputStream invoer,
+                                       Compressie compressie)
+      throws IOException {
+    switch (compressie) {
+      case GZIP:
+        return new GZIPInputStream(invoer, bufferGrootte);
+      case DEFLATE:
+        var inflater  = new Inflater();
+        return new InflaterInputStream(invoer, inflater, bufferGrootte) {
+          @Override
+          public void close() throws IOException {
+            try {
+              super.close();
+            } finally {
+              inflater.end();
+            }
+          }
+        };
+      case AUTOMATISCH:
+        var gebufferd = new BufferedInputStream(invoer, bufferGrootte);
+        gebufferd.mark(2);
+        var magic     = gebufferd.readNBytes(2);
+        gebufferd.reset();
+        return isGzip(magic) ? openInvoer(gebufferd, Compressie.GZIP)
+                             : gebufferd;
+      default:
+        return invoer;
+    }
+  }
+
+  public static InputStream openInvoer(Path bestand) throws IOException {
+    return Files.newInputStream(bestand, leesOpties);
+  }
+
+  public static InputStream openInvoer(Path bestand, Compressie compressie)
+      throws IOException {
+    return openInvoer(openInvoer(bestand),
+                      bepaalCompressie(bestand, compressie));
+  }
+
+  public static FileChannel openKanaal(Path bestand) throws IOException {
+    var opties  = new HashSet<OpenOption>(Arrays.asList(leesOpties));
+    opties.add(StandardOpenOption.READ);
+
+    return FileChannel.open(bestand, opties);
+  }
+
+  public static BufferedReader openLezer(InputStream invoer, String charset)
+      throws IOException {
+    return new BufferedReader(new InputStreamReader(invoer, charset),
+                              bufferGrootte);
+  }
+
+  public static BufferedReader openLezer(Path bestand, String charset)
+      throws IOException {
+    return openLezer(openInvoer(bestand), charset);
+  }
+
+  public static BufferedReader openLezer(Path bestand, String charset,
+                                         Compressie compressie)
+      throws IOException {
+    return openLezer(openInvoer(bestand, compressie), charset);
+  }
+
+  public static BufferedWriter openSchrijver(OutputStream uitvoer,
+                                             String charset)
+      throws IOException {
+    return new BufferedWriter(new OutputStreamWriter(uitvoer, charset),
+                              bufferGrootte);
+  }
+
+  public static BufferedWriter openSchrijver(Path bestand, String charset,
+                                             boolean append)
+      throws IOException {
+    return openSchrijver(openUitvoer(bestand, append), charset);
+  }
+
+  public static BufferedWriter openSchrijver(Path bestand, String charset,
+                                             boolean append,
+                                             Compressie compressie)
+      throws IOException {
+    return openSchrijver(bestand, charset, append, compressie, 1);
+  }
+
+  public static BufferedWriter openSchrijver(Path bestand, String charset,
+                                             boolean append,
+                                             Compressie compressie,
+                                             int threads)
+      throws IOException {
+    return openSchrijver(openUitvoer(bestand, append, compressie, threads),
+                         charset);
+  }
+
+  public static OutputStream openUitvoer(Path bestand, boolean append)
+      throws IOException {
+    var opties  = Arrays.copyOf(schrijfOpties, schrijfOpties.length + 3);
+    opties[schrijfOpties.length]      = StandardOpenOption.CREATE;
+    opties[schrijfOpties.length + 1]  = StandardOpenOption.WRITE;
+    opties[schrijfOpties.length + 2]  =
+        append ? StandardOpenOption.APPEND
+               : StandardOpenOption.TRUNCATE_EXISTING;
+
+    return Files.newOutputStream(bestand, opties);
+  }
+
+  /**
+   * Opent een bestand om te schrijven met compressie. Bij append met GZIP
+   * komt er een nieuw GZIP member achteraan. GZIPInputStream leest alle
+   * members als 1 geheel.
+   */
+  public static OutputStream openUitvoer(Path bestand, boolean append,
+                                         Compressie compressie)
+      throws IOException {
+    return openUitvoer(bestand, append, compressie, 1);
+  }
+
+  /**
+   * Met meer dan 1 thread wordt GZIP in blokken parallel gecomprimeerd.
+   */
+  public static OutputStream openUitvoer(Path bestand, boolean append,
+                                         Compressie compressie, int threads)
+      throws IOException {
+    var soort = bepaalCompressie(bestand, compressie, append);
+
+    return openUitvoer(openUitvoer(bestand, append), soort, threads);
+  }
+
+  public static OutputStream openUitvoer(OutputStream uitvoer,
+                                         Compressie compressie)
+      throws IOException {
+    return openUitvoer(uitvoer, compressie, 1);
+  }
+
+  public static OutputStream openUitvoer(OutputStream uitvoer,
+                                         Compressie compressie, int threads)
+      throws IOException {
+    switch (compressie) {
+      case GZIP:
+        if (threads > 1) {
+          return new ParallelGzipUitvoer(uitvoer, threads);
+        }
+        return new GZIPOutputStream(uitvoer, bufferGrootte);
+      case DEFLATE:
+        var deflater  = new Deflater();
+        return new DeflaterOutputStream(uitvoer, deflater, bufferGrootte) {
+          @Override
+          public void close() throws IOException {
+            try {
+              super.close();
+            } finally {
+              deflater.end();
+            }
+          }
+        };
+      default:
+        return uitvoer;
+    }
+  }
+
+  /**
+   * Opent een FileChannel om te schrijven met dezelfde opties als
+   * openUitvoer(Path, boolean).
+   */
+  public static FileChannel openUitvoerKanaal(Path bestand, boolean append)
+      throws IOException {
+    var opties  = new HashSet<OpenOption>(Arrays.asList(schrijfOpties));
+    opties.add(StandardOpenOption.CREATE);
+    opties.add(StandardOpenOption.WRITE);
+    opties.add(append ? StandardOpenOption.APPEND
+                      : StandardOpenOption.TRUNCATE_EXISTING);
+
+    return FileChannel.open(bestand, opties);
+  }
+
+  /**
+   * Opent een entry van een zip om te lezen. De gegevens komen rechtstreeks
+   * uit de inflater. De zip wordt gesloten als de InputStream gesloten wordt.
+   *
+   * @throws NoSuchFileException als de entry niet bestaat.
+   */
+  public static InputStream openZipInvoer(Path zip, String entry)
+      throws IOException {
+    var zipFile = new ZipFile(zip.toFile());
+    try {
+      var zipEntry  = zipFile.getEntry(entry);
+      if (null == zipEntry || zipEntry.isDirectory()) {
+        throw new NoSuchFileException(zip + "!/" + entry);
+      }
+
+      return new ZipInvoer(zipFile, zipFile.getInputStream(zipEntry));
+    } catch (IOException | RuntimeException e) {
+      zipFile.close();
+      throw e;
+    }
+  }
+
+  public static void setBufferGrootte(int bufferGrootte) {
+    if (bufferGrootte <= 0) {
+      throw new IllegalArgumentException(String.valueOf(bufferGrootte));
+    }
+    BestandFabriek.bufferGrootte  = bufferGrootte;
+  }
+
+  public static void setLeesOpties(OpenOption... leesOpties) {
+    BestandFabriek.leesOpties     = Arrays.copyOf(leesOpties,
+                                                  leesOpties.length);
+  }
+
+  public static void setSchrijfOpties(OpenOption... schrijfOpties) {
+    BestandFabriek.schrijfOpties  = Arrays.copyOf(schrijfOpties,
+                                                  schrijfOpties.length);
+  }
+
+  private static Compressie volgensNaam(Path bestand) {
+    return bestand.getFileName().toString()
+                  .endsWith(BestandConstants.EXT_GZ) ? Compressie.GZIP
+                                                     : Compressie.GEEN;
+  }
+}
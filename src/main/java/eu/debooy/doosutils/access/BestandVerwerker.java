@@ -0,0 +1,537 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Zoekt de bestanden in een map en geeft ze een voor een aan een verwerking.
+ * Met meer dan 1 thread lopen de verwerkingen op een pool met een vast aantal
+ * threads. Er zijn nooit meer dan wachtrij bestanden tegelijk in verwerking
+ * zodat het zoeken niet verder loopt dan de verwerking kan volgen.
+ *
+ * De ontvanger krijgt de resultaten altijd in de thread van de aanroeper.
+ * Geordend in de volgorde waarin de bestanden gevonden zijn, anders in de
+ * volgorde waarin ze klaar zijn. Een fout in een verwerking stopt de andere
+ * verwerkingen niet maar komt in Resultaat.getFouten().
+ */
+public final class BestandVerwerker {
+  private static final  ResourceBundle  resourceBundle  =
+      ResourceBundle.getBundle("DoosUtils-file", Locale.getDefault());
+
+  private final int         diepte;
+  private final Set<String> extensies;
+  private final boolean     geordend;
+  private final String      glob;
+  private final String      map;
+  private final PathMatcher matcher;
+  private final int         threads;
+  private final int         wachtrij;
+
+  private BestandVerwerker(Builder builder) throws BestandException {
+    diepte    = builder.getDiepte();
+    extensies = builder.getExtensies();
+    geordend  = builder.isGeordend();
+    glob      = builder.getGlob();
+    map       = builder.getMap();
+    threads   = Math.max(1, builder.getThreads());
+    wachtrij  = builder.getWachtrij() > 0 ? builder.getWachtrij()
+                                          : threads * 2;
+
+    if (!Files.exists(Paths.get(map))) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_MAP_ONBEKEND), map));
+    }
+    if (!Files.isDirectory(Paths.get(map))) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_MAP_FOUT), map));
+    }
+
+    matcher   = null == glob ? null
+                             : FileSystems.getDefault()
+                                          .getPathMatcher("glob:" + glob);
+  }
+
+  public static final class Builder {
+    private int         diepte    = Integer.MAX_VALUE;
+    private Set<String> extensies = new LinkedHashSet<>();
+    private boolean     geordend  = true;
+    private String      glob      = null;
+    private String      map       = ".";
+    private int         threads   = 1;
+    private int         wachtrij  = 0;
+
+    public BestandVerwerker build() throws BestandException {
+      return new BestandVerwerker(this);
+    }
+
+    public int getDiepte() {
+      return diepte;
+    }
+
+    public Set<String> getExtensies() {
+      return Collections.unmodifiableSet(new LinkedHashSet<>(extensies));
+    }
+
+    public String getGlob() {
+      return glob;
+    }
+
+    public String getMap() {
+      return map;
+    }
+
+    public int getThreads() {
+      return threads;
+    }
+
+    public int getWachtrij() {
+      return wachtrij;
+    }
+
+    public boolean isGeordend() {
+      return geordend;
+    }
+
+    /**
+     * Het aantal niveaus onder de map dat doorzocht wordt. Met 1 worden
+     * enkel de bestanden in de map zelf gevonden.
+     */
+    public Builder setDiepte(int diepte) {
+      this.diepte     = diepte;
+      return this;
+    }
+
+    /**
+     * Enkel de bestanden waarvan de naam op een van deze extensies eindigt,
+     * bv. BestandConstants.EXT_CSV. Hoofdletters en kleine letters zijn
+     * gelijk zodat .csv ook DATA.CSV vindt. Gebruik setGlob om wel op het
+     * verschil te letten.
+     */
+    public Builder setExtensies(String... extensies) {
+      this.extensies  = new LinkedHashSet<>(List.of(extensies));
+      return this;
+    }
+
+    public Builder setGeordend(boolean geordend) {
+      this.geordend   = geordend;
+      return this;
+    }
+
+    /**
+     * Enkel de bestanden waarvan het pad, relatief tegenover de map, op deze
+     * glob past. Bv. "*.csv" voor de map zelf of "**.csv" voor alle niveaus.
+     */
+    public Builder setGlob(String glob) {
+      this.glob       = glob;
+      return this;
+    }
+
+    public Builder setMap(String map) {
+      this.map        = map;
+      return this;
+    }
+
+    public Builder setThreads(int threads) {
+      this.threads    = threads;
+      return this;
+    }
+
+    /**
+     * Het hoogste aantal bestanden dat tegelijk in verwerking is. Standaard
+     * 2 keer het aantal threads.
+     */
+    public Builder setWachtrij(int wachtrij) {
+      this.wachtrij   = wachtrij;
+      return this;
+    }
+  }
+
+  /**
+   * Verwerkt 1 bestand. De waarde gaat naar de ontvanger.
+   */
+  @FunctionalInterface
+  public interface Verwerking<T> {
+    T verwerk(Path bestand) throws BestandException;
+  }
+
+  /**
+   * De samenvatting van een verwerking.
+   */
+  public static final class Resultaat {
+    private final long                  aantal;
+    private final long                  bytes;
+    private final Duration              duur;
+    private final Map<Path, Exception>  fouten;
+
+    private Resultaat(long aantal, long bytes, Duration duur,
+                      Map<Path, Exception> fouten) {
+      this.aantal = aantal;
+      this.bytes  = bytes;
+      this.duur   = duur;
+      this.fouten = Collections.unmodifiableMap(fouten);
+    }
+
+    /**
+     * @return het aantal bestanden dat zonder fout verwerkt is.
+     */
+    public long getAantal() {
+      return aantal;
+    }
+
+    /**
+     * @return de grootte van de bestanden die zonder fout verwerkt zijn.
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    public double getBytesPerSeconde() {
+      return duur.isZero() ? 0 : bytes * 1e9 / duur.toNanos();
+    }
+
+    public Duration getDuur() {
+      return duur;
+    }
+
+    /**
+     * @return de bestanden die niet verwerkt konden worden in de volgorde
+     *         waarin de fouten ontvangen zijn.
+     */
+    public Map<Path, Exception> getFouten() {
+      return fouten;
+    }
+
+    public boolean isGelukt() {
+      return fouten.isEmpty();
+    }
+  }
+
+  /**
+   * De uitkomst van de verwerking van 1 bestand.
+   */
+  private static final class Uitkomst<T> {
+    private final Path      bestand;
+    private final long      bytes;
+    private final Exception fout;
+    private final T         waarde;
+
+    private Uitkomst(Path bestand, long bytes, T waarde, Exception fout) {
+      this.bestand  = bestand;
+      this.bytes    = bytes;
+      this.fout     = fout;
+      this.waarde   = waarde;
+    }
+  }
+
+  /**
+   * Houdt de tellers bij. Wordt enkel in de thread van de aanroeper gebruikt.
+   */
+  private static final class Teller<T> {
+    private final Map<Path, Exception>  fouten    = new LinkedHashMap<>();
+    private final Consumer<? super T>   ontvanger;
+
+    private long  aantal  = 0;
+    private long  bytes   = 0;
+
+    private Teller(Consumer<? super T> ontvanger) {
+      this.ontvanger  = ontvanger;
+    }
+
+    private void ontvang(Uitkomst<T> uitkomst) {
+      if (null != uitkomst.fout) {
+        fouten.put(uitkomst.bestand, uitkomst.fout);
+        return;
+      }
+
+      aantal++;
+      bytes  += uitkomst.bytes;
+      if (null != ontvanger) {
+        ontvanger.accept(uitkomst.waarde);
+      }
+    }
+  }
+
+  /**
+   * Geeft de gevonden bestanden aan de pool. Als de wachtrij vol is wordt
+   * eerst op een uitkomst gewacht. Geordend op de oudste taak, anders op de
+   * eerste taak die klaar is.
+   */
+  private final class Verdeler<T> {
+    private final ExecutorCompletionService<Uitkomst<T>>  klaar;
+    private final ExecutorService                         pool;
+    private final ArrayDeque<Future<Uitkomst<T>>>         taken =
+        new ArrayDeque<>();
+    private final Teller<T>                               teller;
+    private final Verwerking<T>                           verwerking;
+
+    private int bezig = 0;
+
+    private Verdeler(ExecutorService pool, Verwerking<T> verwerking,
+                     Teller<T> teller) {
+      this.klaar      = new ExecutorCompletionService<>(pool);
+      this.pool       = pool;
+      this.teller     = teller;
+      this.verwerking = verwerking;
+    }
+
+    private void geef(Path bestand, long grootte) throws BestandException {
+      while (bezig >= wachtrij) {
+        ontvang();
+      }
+
+      Callable<Uitkomst<T>> taak  =
+          () -> verwerk(verwerking, bestand, grootte);
+      if (geordend) {
+        taken.add(pool.submit(taak));
+      } else {
+        klaar.submit(taak);
+      }
+      bezig++;
+    }
+
+    private void ontvang() throws BestandException {
+      try {
+        var taak  = geordend ? taken.poll() : klaar.take();
+        bezig--;
+        teller.ontvang(taak.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new BestandException(e);
+      } catch (ExecutionException e) {
+        throw new BestandException(e.getCause());
+      }
+    }
+
+    private void wacht() throws BestandException {
+      while (bezig > 0) {
+        ontvang();
+      }
+    }
+  }
+
+  /**
+   * Een verwerking die geen waarde geeft voor een ontvanger.
+   */
+  private interface Bezoeker {
+    void bezoek(Path bestand, long grootte) throws BestandException;
+  }
+
+  private static boolean eindigtOp(String naam, String extensie) {
+    return naam.regionMatches(true, naam.length() - extensie.length(),
+                              extensie, 0, extensie.length());
+  }
+
+  public int getDiepte() {
+    return diepte;
+  }
+
+  public Set<String> getExtensies() {
+    return extensies;
+  }
+
+  public String getGlob() {
+    return glob;
+  }
+
+  public String getMap() {
+    return map;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public int getWachtrij() {
+    return wachtrij;
+  }
+
+  public boolean isGeordend() {
+    return geordend;
+  }
+
+  private boolean isGezocht(Path basis, Path bestand) {
+    if (!extensies.isEmpty()) {
+      var naam  = bestand.getFileName().toString();
+      if (extensies.stream()
+                   .noneMatch(extensie -> eindigtOp(naam, extensie))) {
+        return false;
+      }
+    }
+
+    return null == matcher || matcher.matches(basis.relativize(bestand));
+  }
+
+  /**
+   * Loopt door de map en geeft elk gezocht bestand aan de bezoeker. Een map
+   * die niet geopend of niet helemaal gelezen kan worden komt bij de fouten
+   * en de rest van de map wordt verder doorlopen.
+   */
+  private void loop(Bezoeker bezoeker, Map<Path, Exception> fouten)
+      throws BestandException {
+    var basis = Paths.get(map);
+    var fout  = new BestandException[1];
+    try {
+      Files.walkFileTree(basis, EnumSet.noneOf(FileVisitOption.class),
+                         diepte, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+          if (null != e) {
+            fouten.put(dir, e);
+          }
+
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file,
+                                         BasicFileAttributes attrs) {
+          if (!attrs.isRegularFile() || !isGezocht(basis, file)) {
+            return FileVisitResult.CONTINUE;
+          }
+          try {
+            bezoeker.bezoek(file, attrs.size());
+          } catch (BestandException e) {
+            fout[0] = e;
+            return FileVisitResult.TERMINATE;
+          }
+
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+          fouten.put(file, e);
+
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+
+    if (null != fout[0]) {
+      throw fout[0];
+    }
+  }
+
+  private static <T> Uitkomst<T> verwerk(Verwerking<T> verwerking,
+                                         Path bestand, long grootte) {
+    try {
+      return new Uitkomst<>(bestand, grootte, verwerking.verwerk(bestand),
+                            null);
+    } catch (BestandException | RuntimeException e) {
+      return new Uitkomst<>(bestand, grootte, null, e);
+    }
+  }
+
+  /**
+   * Verwerkt alle gezochte bestanden zonder ontvanger.
+   *
+   * @param verwerking
+   * @return de samenvatting.
+   * @throws BestandException als de map niet doorlopen kan worden.
+   */
+  public Resultaat verwerk(Verwerking<?> verwerking) throws BestandException {
+    return verwerk(verwerking, null);
+  }
+
+  /**
+   * Verwerkt alle gezochte bestanden en geeft de waarden aan de ontvanger.
+   *
+   * @param verwerking
+   * @param ontvanger mag null zijn.
+   * @return de samenvatting.
+   * @throws BestandException als de map niet doorlopen kan worden.
+   */
+  public <T> Resultaat verwerk(Verwerking<T> verwerking,
+                               Consumer<? super T> ontvanger)
+      throws BestandException {
+    var begin   = System.nanoTime();
+    var teller  = new Teller<T>(ontvanger);
+
+    if (threads < 2) {
+      loop((bestand, grootte) ->
+              teller.ontvang(verwerk(verwerking, bestand, grootte)),
+           teller.fouten);
+    } else {
+      var pool      = Executors.newFixedThreadPool(threads);
+      var verdeler  = new Verdeler<T>(pool, verwerking, teller);
+      try {
+        loop(verdeler::geef, teller.fouten);
+        verdeler.wacht();
+      } finally {
+        pool.shutdownNow();
+      }
+    }
+
+    return new Resultaat(teller.aantal, teller.bytes,
+                         Duration.ofNanos(System.nanoTime() - begin),
+                         teller.fouten);
+  }
+
+  /**
+   * Geeft alle gezochte bestanden in de volgorde waarin ze gevonden worden.
+   *
+   * @return de bestanden.
+   * @throws BestandException als de map niet doorlopen kan worden.
+   */
+  public List<Path> zoek() throws BestandException {
+    var bestanden = new ArrayList<Path>();
+    var fouten    = new LinkedHashMap<Path, Exception>();
+    loop((bestand, grootte) -> bestanden.add(bestand), fouten);
+    if (!fouten.isEmpty()) {
+      var fout  = fouten.values().iterator().next();
+      throw new BestandException(fout);
+    }
+
+    return bestanden;
+  }
+}
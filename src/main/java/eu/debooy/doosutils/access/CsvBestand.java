@@ -19,18 +19,18 @@ package eu.debooy.doosutils.access;
 import eu.debooy.doosutils.exception.BestandException;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.nio.charset.Charset;
+import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -53,31 +53,48 @@ public class CsvBestand implements AutoCloseable {
 
   private final boolean     append;
   private final String      bestand;
+  private final int         blokGrootte;
   private final String      charset;
   private final ClassLoader classLoader;
+  private final Compressie  compressie;
   private final String      delimiter;
   private final String      fieldSeparator;
+  private final boolean     geordend;
   private final boolean     header;
   private final String      lineSeparator;
   private final boolean     lezen;
+  private final int         threads;
+  private final String      zip;
 
+  private final Map<String, Integer>  kolommen  = new HashMap<>();
+
+  private boolean         gecomprimeerd;
+  private CsvRecord       gelezen;
+  private CsvRecord       huidig;
   private BufferedReader  invoer;
   private BufferedWriter  uitvoer;
   private String[]        kolomNamen;
-  private String          lijn;
+  private long            kopLijnen;
+  private CsvLezer        lezer;
   private long            lijnen;
+  private boolean         volgende;
 
   private CsvBestand(Builder builder) throws BestandException {
     append          = builder.isAppend();
     bestand         = builder.getBestand();
+    blokGrootte     = builder.getBlokGrootte();
     charset         = builder.getCharset();
     classLoader     = builder.getClassLoader();
+    compressie      = builder.getCompressie();
     delimiter       = builder.getDelimiter();
     fieldSeparator  = builder.getFieldSeparator();
+    geordend        = builder.isGeordend();
     header          = builder.hasHeader();
     kolomNamen      = builder.getKolomNamen();
     lezen           = builder.isReadOnly();
     lineSeparator   = builder.getLineSeparator();
+    threads         = builder.getThreads();
+    zip             = builder.getZip();
 
     open();
 
@@ -90,14 +107,19 @@ public class CsvBestand implements AutoCloseable {
   public static final class Builder {
     private boolean     append          = false;
     private String      bestand         = "";
+    private int         blokGrootte     = 4 * 1024 * 1024;
     private String      charset         = Charset.defaultCharset().name();
     private ClassLoader classLoader     = null;
+    private Compressie  compressie      = Compressie.AUTOMATISCH;
     private String      delimiter       = "\"";
     private String      fieldSeparator  = ",";
+    private boolean     geordend        = true;
     private boolean     header          = true;
     private String[]    kolomNamen      = new String[0];
     private boolean     lezen           = true;
     private String      lineSeparator   = System.getProperty("line.separator");
+    private int         threads         = 1;
+    private String      zip             = null;
 
     public CsvBestand build() throws BestandException {
       return new CsvBestand(this);
@@ -107,6 +129,10 @@ public class CsvBestand implements AutoCloseable {
       return bestand;
     }
 
+    public int getBlokGrootte() {
+      return blokGrootte;
+    }
+
     public String getCharset() {
       return charset;
     }
@@ -115,6 +141,10 @@ public class CsvBestand implements AutoCloseable {
       return classLoader;
     }
 
+    public Compressie getCompressie() {
+      return compressie;
+    }
+
     public String getDelimiter() {
       return delimiter;
     }
@@ -131,6 +161,14 @@ public class CsvBestand implements AutoCloseable {
       return lineSeparator;
     }
 
+    public int getThreads() {
+      return threads;
+    }
+
+    public String getZip() {
+      return zip;
+    }
+
     public boolean hasHeader() {
       return header;
     }
@@ -139,6 +177,10 @@ public class CsvBestand implements AutoCloseable {
       return append;
     }
 
+    public boolean isGeordend() {
+      return geordend;
+    }
+
     public boolean isReadOnly() {
       return lezen;
     }
@@ -153,6 +195,11 @@ public class CsvBestand implements AutoCloseable {
       return this;
     }
 
+    public Builder setBlokGrootte(int blokGrootte) {
+      this.blokGrootte    = blokGrootte;
+      return this;
+    }
+
     public Builder setCharset(String charset) {
       this.charset        = charset;
       return this;
@@ -163,6 +210,16 @@ public class CsvBestand implements AutoCloseable {
       return this;
     }
 
+    /**
+     * De compressie van het bestand. Met AUTOMATISCH (standaard) wordt GZIP
+     * bij het lezen herkend en wordt een nieuw .gz bestand met GZIP
+     * geschreven.
+     */
+    public Builder setCompressie(Compressie compressie) {
+      this.compressie     = compressie;
+      return this;
+    }
+
     public Builder setDelimiter(String delimiter) {
       this.delimiter      = delimiter;
       return this;
@@ -173,6 +230,11 @@ public class CsvBestand implements AutoCloseable {
       return this;
     }
 
+    public Builder setGeordend(boolean geordend) {
+      this.geordend       = geordend;
+      return this;
+    }
+
     public Builder setHeader(boolean header) {
       this.header         = header;
       return this;
@@ -192,6 +254,25 @@ public class CsvBestand implements AutoCloseable {
       this.lineSeparator  = lineSeparator;
       return this;
     }
+
+    /**
+     * Het aantal threads om te lezen met verwerk() en om GZIP in blokken te
+     * comprimeren bij het schrijven. Met meer dan 1 thread schrijft flush()
+     * het laatste, onvolledige blok van 1 MB niet weg. Dat gebeurt pas bij
+     * close().
+     */
+    public Builder setThreads(int threads) {
+      this.threads        = threads;
+      return this;
+    }
+
+    /**
+     * Leest het bestand als entry uit deze zip zonder het uit te pakken.
+     */
+    public Builder setZip(String zip) {
+      this.zip            = zip;
+      return this;
+    }
   }
 
   @Override
@@ -215,7 +296,29 @@ public class CsvBestand implements AutoCloseable {
     }
   }
 
+  private void controleerRecord() throws BestandException {
+    if (isEof()) {
+      throw new BestandException(
+          resourceBundle.getString(BestandConstants.ERR_BEST_EOF));
+    }
+
+    lijnen++;
+
+    var lijn  = lezer.getBeginLijn() - kopLijnen;
+    if (gelezen.getAantal() != kolomNamen.length) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_CSV_KOLOM_AANTAL),
+                                                      gelezen.getAantal(),
+                                                      kolomNamen.length,
+                                                      lijn));
+    }
+    gelezen.setLijn(lijn);
+  }
+
   public String getBestand() {
+    if (null != zip) {
+      return zip + "!/" + bestand;
+    }
     if (null != classLoader) {
       return "CLASSPATH/" + bestand;
     }
@@ -223,6 +326,10 @@ public class CsvBestand implements AutoCloseable {
     return bestand;
   }
 
+  public int getBlokGrootte() {
+    return blokGrootte;
+  }
+
   public String getCharset() {
     return charset;
   }
@@ -231,6 +338,10 @@ public class CsvBestand implements AutoCloseable {
     return classLoader;
   }
 
+  public Compressie getCompressie() {
+    return compressie;
+  }
+
   public String getDelimiter() {
     return delimiter;
   }
@@ -247,12 +358,44 @@ public class CsvBestand implements AutoCloseable {
     return lineSeparator;
   }
 
+  /**
+   * Geeft een CsvParallelLezer voor de overige records als die in blokken
+   * gelezen kunnen worden. Deze records worden dan als gelezen beschouwd.
+   *
+   * @return null als het bestand niet in blokken gelezen kan worden.
+   */
+  CsvParallelLezer getParallelLezer() {
+    var cs  = Charset.forName(charset);
+    if (null != classLoader
+        || null != zip
+        || gecomprimeerd
+        || lijnen > 0
+        || !hasNext()
+        || !Bestand.isSplitsbaar(cs)) {
+      return null;
+    }
+
+    volgende  = false;
+
+    return new CsvParallelLezer(Paths.get(bestand), cs, delimiter,
+                                fieldSeparator, header, kolomNamen.length,
+                                threads, geordend, blokGrootte);
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public String getZip() {
+    return zip;
+  }
+
   public boolean hasHeading() {
     return header;
   }
 
   public boolean hasNext() {
-    return (null != lijn);
+    return volgende;
   }
 
   public boolean isAppend() {
@@ -263,67 +406,85 @@ public class CsvBestand implements AutoCloseable {
     return !hasNext();
   }
 
+  public boolean isGeordend() {
+    return geordend;
+  }
+
   public boolean isReadOnly() {
     return lezen;
   }
 
+  /**
+   * Leest de kop en het eerste record. De lijnen worden geteld vanaf de
+   * eerste lijn na de kop, ook als de kop over meerdere lijnen loopt.
+   */
   private void leesHeader() throws BestandException {
-    try {
-      lijn  = invoer.readLine();
-    } catch (IOException e) {
-      throw new BestandException(e);
-    }
-
-    if (null == lijn) {
+    kolommen.clear();
+    kopLijnen = 0;
+    gelezen = new CsvRecord(kolommen);
+    huidig  = new CsvRecord(kolommen);
+    lezer   = new CsvLezer(invoer, delimiter, fieldSeparator);
+    leesRecord();
+
+    if (!volgende) {
       throw new BestandException(MessageFormat.format(
           resourceBundle.getString(BestandConstants.ERR_BEST_LEEG),
                                                       getBestand()));
     }
 
     if (header) {
-      kolomNamen  = splits(lijn);
-      try {
-        lijn  = invoer.readLine();
-        if (null == lijn) {
-          throw new BestandException(MessageFormat.format(
-              resourceBundle.getString(BestandConstants.ERR_BEST_LEEG),
-                                                          getBestand()));
-        }
-      } catch (IOException e) {
-        throw new BestandException(e);
+      kolomNamen  = gelezen.getVelden();
+      for (var i = 0; i < kolomNamen.length; i++) {
+        kolommen.put(kolomNamen[i], i);
+      }
+      leesRecord();
+      if (!volgende) {
+        throw new BestandException(MessageFormat.format(
+            resourceBundle.getString(BestandConstants.ERR_BEST_LEEG),
+                                                        getBestand()));
       }
+      kopLijnen   = lezer.getBeginLijn() - 1;
     } else {
-      kolomNamen  = new String[splits(lijn).length];
+      kolomNamen  = new String[gelezen.getAantal()];
     }
   }
 
-  public String[] next() throws BestandException {
-    if (isEof()) {
-      throw new BestandException(
-          resourceBundle.getString(BestandConstants.ERR_BEST_EOF));
-    }
-
-    lijnen++;
-
-    String[]  velden  = splits(lijn);
-
-    if (velden.length != kolomNamen.length) {
-      throw new BestandException(MessageFormat.format(
-          resourceBundle.getString(BestandConstants.ERR_CSV_KOLOM_AANTAL),
-                                                      velden.length,
-                                                      kolomNamen.length,
-                                                      lijnen));
-    }
-
+  private void leesRecord() throws BestandException {
     try {
-      lijn = invoer.readLine();
+      volgende  = lezer.leesRecord(gelezen);
     } catch (IOException e) {
       throw new BestandException(e);
     }
+  }
+
+  public String[] next() throws BestandException {
+    controleerRecord();
+
+    var velden  = gelezen.getVelden();
+    leesRecord();
 
     return velden;
   }
 
+  /**
+   * Geeft het volgende record zonder de velden te kopieren. Het CsvRecord
+   * wordt hergebruikt en is enkel geldig tot de volgende oproep van
+   * nextRecord() of next().
+   *
+   * @return het volgende record.
+   * @throws BestandException
+   */
+  public CsvRecord nextRecord() throws BestandException {
+    controleerRecord();
+
+    var record  = gelezen;
+    gelezen     = huidig;
+    huidig      = record;
+    leesRecord();
+
+    return huidig;
+  }
+
   public final void open() throws BestandException {
     lijnen  = 0;
     if (null != invoer
@@ -334,7 +495,9 @@ public class CsvBestand implements AutoCloseable {
     }
 
     try {
-      if (null == classLoader) {
+      if (null != zip) {
+        openZip();
+      } else if (null == classLoader) {
         openFilesystem();
       } else {
         openClassLoader();
@@ -354,9 +517,10 @@ public class CsvBestand implements AutoCloseable {
 
   private void openClassLoader() throws BestandException, IOException {
     if (lezen) {
-      invoer  = new BufferedReader(
-                  new InputStreamReader(
-                      classLoader.getResourceAsStream(bestand), charset));
+      invoer  = BestandFabriek.openLezer(
+                  BestandFabriek.openInvoer(
+                      classLoader.getResourceAsStream(bestand), compressie),
+                  charset);
     } else {
       throw new BestandException(
           resourceBundle.getString(BestandConstants.ERR_CLP_READONLY));
@@ -364,17 +528,20 @@ public class CsvBestand implements AutoCloseable {
   }
 
   private void openFilesystem() throws BestandException, IOException {
+    var pad   = Paths.get(bestand);
+    var soort = lezen ? BestandFabriek.bepaalCompressie(pad, compressie)
+                      : BestandFabriek.bepaalCompressie(pad, compressie,
+                                                        isAppend());
+    gecomprimeerd = Compressie.GEEN != soort;
     if (lezen) {
-      invoer  = new BufferedReader(
-                  new InputStreamReader(
-                    new FileInputStream (bestand), charset));
+      invoer  = BestandFabriek.openLezer(pad, charset, soort);
     } else {
       if (isAppend() && hasHeading()) {
         String[] headr;
-        try (BufferedReader head = new BufferedReader(
-                new InputStreamReader(
-                        new FileInputStream (bestand), charset))) {
-          headr = splits(head.readLine());
+        try (var head = BestandFabriek.openLezer(pad, charset, soort)) {
+          var kop = new CsvRecord(kolommen);
+          new CsvLezer(head, delimiter, fieldSeparator).leesRecord(kop);
+          headr = kop.getVelden();
         }
         if (kolomNamen.length == 0) {
           kolomNamen  = Arrays.copyOf(headr, headr.length);
@@ -387,56 +554,73 @@ public class CsvBestand implements AutoCloseable {
         }
       }
 
-      uitvoer = new BufferedWriter(
-                  new OutputStreamWriter(
-                    new FileOutputStream(bestand, append), charset));
+      uitvoer = BestandFabriek.openSchrijver(pad, charset, append, soort,
+                                             threads);
     }
   }
 
-  private String[] splits(String lijn) {
-    String[]  hulp    = lijn.split(fieldSeparator, -1);
-    String[]  velden  = new String[hulp.length];
-    int i = 0;
-    int j = 0;
-    while (i < hulp.length) {
-      StringBuilder veldbuf = new StringBuilder(hulp[i]);
-      while (!testVeld(veldbuf.toString())) {
-        if (i < hulp.length) {
-          i++;
-        }
-        veldbuf.append(fieldSeparator).append(hulp[i]);
-      }
-      String  veld  = veldbuf.toString();
-      if (veld.startsWith(delimiter)
-          && veld.endsWith(delimiter)) {
-        veld  = veld.substring(delimiter.length(),
-                               veld.length()-delimiter.length());
-      }
-      velden[j] = veld.replace(delimiter+delimiter, delimiter);
-      i++;
-      j++;
+  private void openZip() throws BestandException, IOException {
+    if (lezen) {
+      invoer  = BestandFabriek.openLezer(
+                  BestandFabriek.openInvoer(
+                      BestandFabriek.openZipInvoer(Paths.get(zip), bestand),
+                      compressie),
+                  charset);
+    } else {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_ZIP_READONLY), zip));
     }
+  }
 
-    return Arrays.copyOf(velden, j);
+  /**
+   * Geeft de overige records als een Stream. Een fout bij het lezen wordt als
+   * UncheckedBestandException gegooid. Een parallelle Stream op een bestand
+   * op het filesystem leest het bestand in blokken van blokGrootte bytes.
+   *
+   * @return de records.
+   */
+  public Stream<String[]> stream() {
+    return StreamSupport.stream(new CsvSpliterator(this), false);
   }
 
-  private boolean testVeld(String veld) {
-    if ((veld.startsWith(delimiter)
-        && veld.endsWith(delimiter))
-        || (!veld.startsWith(delimiter)
-              && !veld.endsWith(delimiter))) {
-      Pattern pattern = Pattern.compile(delimiter);
-      Matcher matcher = pattern.matcher(veld);
-      int count = 0;
-      while (matcher.find()) {
-          count++;
-      }
-      if ((count%2) == 0) {
-        return true;
+  /**
+   * Geeft alle overige records aan de verwerker. Met meer dan 1 thread wordt
+   * een bestand op het filesystem in blokken verdeeld die parallel gelezen
+   * worden. Dit kan enkel zolang er nog geen record gelezen is. Als de records
+   * niet geordend moeten zijn dan roepen de threads de verwerker rechtstreeks
+   * op en moet die thread-safe zijn.
+   *
+   * @param verwerker
+   * @throws BestandException
+   */
+  public void verwerk(Consumer<String[]> verwerker) throws BestandException {
+    var parallel  = threads > 1 ? getParallelLezer() : null;
+    if (null != parallel) {
+      lijnen  = parallel.verwerk(verwerker);
+      return;
+    }
+
+    while (hasNext()) {
+      verwerker.accept(next());
+    }
+  }
+
+  /**
+   * Telt de regeleindes in de tekst zoals CsvLezer ze telt. Een CR gevolgd
+   * door een LF is 1 regeleinde.
+   */
+  private static int telRegeleindes(String tekst) {
+    var aantal  = 0;
+    for (var i = 0; i < tekst.length(); i++) {
+      var teken = tekst.charAt(i);
+      if (teken == '\n'
+          || (teken == '\r'
+              && (i + 1 == tekst.length() || tekst.charAt(i + 1) != '\n'))) {
+        aantal++;
       }
     }
 
-    return false;
+    return aantal;
   }
 
   public void write(Object... kolommen) throws BestandException {
@@ -479,11 +663,14 @@ public class CsvBestand implements AutoCloseable {
     if (kolom instanceof String) {
       if (((String) kolom).contains(fieldSeparator)
           || ((String) kolom).contains(delimiter)
-          || ((String) kolom).contains(lineSeparator)) {
+          || ((String) kolom).contains(lineSeparator)
+          || ((String) kolom).indexOf('\n') >= 0
+          || ((String) kolom).indexOf('\r') >= 0) {
         regel.append(fieldSeparator).append(delimiter)
-             .append(((String) kolom).replaceAll(delimiter,
-                                                delimiter + delimiter))
+             .append(((String) kolom).replace(delimiter,
+                                             delimiter + delimiter))
             .append(delimiter);
+        lijnen += telRegeleindes((String) kolom);
       } else {
         regel.append(fieldSeparator).append(kolom);
       }
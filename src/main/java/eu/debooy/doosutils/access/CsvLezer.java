@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Leest de records van een CSV bestand teken per teken in een enkele
+ * doorgang. Er worden geen reguliere expressies gebruikt en de buffers worden
+ * hergebruikt voor elk record. Een veld tussen delimiters mag regeleindes
+ * bevatten. Het record loopt dan verder over de volgende lijnen.
+ */
+final class CsvLezer {
+  private static final  int BUFFERGROOTTE = 8192;
+
+  private final char[]  delimiter;
+  private final char[]  fieldSeparator;
+  private final Reader  invoer;
+
+  private long    beginLijn   = 0;
+  private char[]  buffer      = new char[BUFFERGROOTTE];
+  private boolean eof         = false;
+  private int     limiet      = 0;
+  private long    lijnNummer  = 0;
+  private int     positie     = 0;
+
+  CsvLezer(Reader invoer, String delimiter, String fieldSeparator) {
+    this.delimiter      = delimiter.toCharArray();
+    this.fieldSeparator = fieldSeparator.toCharArray();
+    this.invoer         = invoer;
+  }
+
+  private void appendDelimiter(CsvRecord record) {
+    for (var teken : delimiter) {
+      record.append(teken);
+    }
+  }
+
+  /**
+   * Geeft de fysieke lijn waarop het laatst gelezen record begint.
+   */
+  long getBeginLijn() {
+    return beginLijn;
+  }
+
+  /**
+   * Leest het volgende record in het gegeven CsvRecord.
+   *
+   * @return false als er geen record meer is.
+   * @throws IOException
+   */
+  boolean leesRecord(CsvRecord record) throws IOException {
+    record.reset();
+
+    if (!vul(1)) {
+      return false;
+    }
+
+    beginLijn = lijnNummer + 1;
+    var inQuotes  = false;
+    var start     = true;
+    record.startVeld();
+    while (vul(1)) {
+      var teken = buffer[positie];
+
+      if (inQuotes) {
+        if (matcht(delimiter)) {
+          positie += delimiter.length;
+          if (matcht(delimiter)) {
+            positie += delimiter.length;
+            appendDelimiter(record);
+          } else {
+            inQuotes  = false;
+          }
+          continue;
+        }
+        if (teken == '\n'
+            || (teken == '\r' && !(vul(2) && buffer[positie + 1] == '\n'))) {
+          lijnNummer++;
+        }
+        record.append(teken);
+        positie++;
+        continue;
+      }
+
+      if (matcht(fieldSeparator)) {
+        positie += fieldSeparator.length;
+        record.sluitVeld();
+        record.startVeld();
+        start = true;
+        continue;
+      }
+
+      if (teken == '\n' || teken == '\r') {
+        positie++;
+        if (teken == '\r' && vul(1) && buffer[positie] == '\n') {
+          positie++;
+        }
+        lijnNummer++;
+        break;
+      }
+
+      if (matcht(delimiter)) {
+        positie += delimiter.length;
+        if (start) {
+          inQuotes  = true;
+          start     = false;
+          continue;
+        }
+        if (matcht(delimiter)) {
+          positie += delimiter.length;
+        }
+        appendDelimiter(record);
+        continue;
+      }
+
+      record.append(teken);
+      positie++;
+      start = false;
+    }
+    record.sluitVeld();
+
+    return true;
+  }
+
+  private boolean matcht(char[] patroon) throws IOException {
+    if (!vul(1)
+        || buffer[positie] != patroon[0]) {
+      return false;
+    }
+    if (patroon.length == 1) {
+      return true;
+    }
+
+    if (!vul(patroon.length)) {
+      return false;
+    }
+
+    for (var i = 1; i < patroon.length; i++) {
+      if (buffer[positie + i] != patroon[i]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Zorgt dat er minstens 'nodig' tekens in de buffer beschikbaar zijn.
+   */
+  private boolean vul(int nodig) throws IOException {
+    if (limiet - positie >= nodig) {
+      return true;
+    }
+    if (eof) {
+      return false;
+    }
+
+    if (positie > 0) {
+      System.arraycopy(buffer, positie, buffer, 0, limiet - positie);
+      limiet  -= positie;
+      positie  = 0;
+    }
+    if (nodig > buffer.length) {
+      buffer  = Arrays.copyOf(buffer, nodig);
+    }
+    while (limiet < nodig) {
+      var gelezen = invoer.read(buffer, limiet, buffer.length - limiet);
+      if (gelezen < 0) {
+        eof = true;
+        return false;
+      }
+      limiet  += gelezen;
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,429 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Verwerkt een CSV bestand met meerdere threads. Het bestand wordt in blokken
+ * van ongeveer blokGrootte bytes verdeeld. De grenzen worden door een snelle
+ * scan op byte niveau bepaald die de delimiters volgt zodat een blok altijd op
+ * het einde van een record stopt, ook als een veld meerdere lijnen bevat. De
+ * scan telt ook de lijnen, ook die binnen een veld, zodat de foutmeldingen
+ * hetzelfde lijnnummer bevatten als bij sequentieel lezen. Terwijl de scan
+ * verder loopt worden de blokken door de threads verwerkt.
+ *
+ * Dit werkt enkel voor UTF-8 en charsets met 1 byte per teken. Zie
+ * Bestand.isSplitsbaar(Charset).
+ */
+final class CsvParallelLezer {
+  private static final  ResourceBundle  resourceBundle  =
+      ResourceBundle.getBundle("DoosUtils-file", Locale.getDefault());
+
+  private static final  int BUFFERGROOTTE = 65536;
+
+  private final int     blokGrootte;
+  private final Path    bestand;
+  private final Charset charset;
+  private final String  delimiter;
+  private final String  fieldSeparator;
+  private final boolean geordend;
+  private final boolean header;
+  private final int     kolommen;
+  private final int     threads;
+
+  CsvParallelLezer(Path bestand, Charset charset, String delimiter,
+                   String fieldSeparator, boolean header, int kolommen,
+                   int threads, boolean geordend, int blokGrootte) {
+    this.bestand        = bestand;
+    this.blokGrootte    = blokGrootte;
+    this.charset        = charset;
+    this.delimiter      = delimiter;
+    this.fieldSeparator = fieldSeparator;
+    this.geordend       = geordend;
+    this.header         = header;
+    this.kolommen       = kolommen;
+    this.threads        = threads;
+  }
+
+  static final class Blok {
+    private final long  begin;
+    private final long  eersteLijn;
+    private final long  einde;
+
+    private Blok(long begin, long einde, long eersteLijn) {
+      this.begin      = begin;
+      this.eersteLijn = eersteLijn;
+      this.einde      = einde;
+    }
+  }
+
+  /**
+   * Zoekt de grenzen van de blokken. Volgt dezelfde regels als CsvLezer maar
+   * zonder de tekens te decoderen of de velden te bewaren.
+   */
+  private final class Scanner {
+    private final byte[]      delimiter;
+    private final byte[]      fieldSeparator;
+    private final InputStream invoer;
+
+    private long    basis       = 0;
+    private long    blokBegin   = 0;
+    private byte[]  buffer      = new byte[BUFFERGROOTTE];
+    private boolean cr          = false;
+    private long    eersteLijn  = 1;
+    private boolean eof         = false;
+    private int     limiet      = 0;
+    private long    lijn        = 1;
+    private long    nummer      = 1;
+    private int     positie     = 0;
+
+    private Scanner(InputStream invoer) throws IOException {
+      this.delimiter      =
+          CsvParallelLezer.this.delimiter.getBytes(charset);
+      this.fieldSeparator =
+          CsvParallelLezer.this.fieldSeparator.getBytes(charset);
+      this.invoer         = invoer;
+
+      if (header) {
+        slaRecordOver();
+        blokBegin = getPositie();
+        lijn      = 1;
+      }
+    }
+
+    private long getAantal() {
+      return nummer - 1;
+    }
+
+    private long getPositie() {
+      return basis + positie;
+    }
+
+    private Blok maakBlok() {
+      var blok  = new Blok(blokBegin, getPositie(), eersteLijn);
+      blokBegin   = getPositie();
+      eersteLijn  = lijn;
+
+      return blok;
+    }
+
+    private boolean matcht(byte[] patroon) throws IOException {
+      if (!vul(1)
+          || buffer[positie] != patroon[0]) {
+        return false;
+      }
+      if (patroon.length == 1) {
+        return true;
+      }
+      if (!vul(patroon.length)) {
+        return false;
+      }
+      for (var i = 1; i < patroon.length; i++) {
+        if (buffer[positie + i] != patroon[i]) {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    /**
+     * Gaat naar het einde van het volgende record.
+     *
+     * @return false als er geen record meer is.
+     */
+    private boolean slaRecordOver() throws IOException {
+      if (!vul(1)) {
+        return false;
+      }
+
+      var inQuotes  = false;
+      var start     = true;
+      while (vul(1)) {
+        if (inQuotes) {
+          while (positie < limiet && buffer[positie] != delimiter[0]) {
+            telRegeleinde(buffer[positie]);
+            positie++;
+          }
+          if (positie == limiet) {
+            continue;
+          }
+          cr  = false;
+          if (matcht(delimiter)) {
+            positie += delimiter.length;
+            if (matcht(delimiter)) {
+              positie += delimiter.length;
+            } else {
+              inQuotes  = false;
+            }
+          } else {
+            positie++;
+          }
+          continue;
+        }
+
+        var teken = buffer[positie];
+
+        if (matcht(fieldSeparator)) {
+          positie += fieldSeparator.length;
+          start     = true;
+          continue;
+        }
+
+        if (teken == '\n' || teken == '\r') {
+          positie++;
+          if (teken == '\r' && vul(1) && buffer[positie] == '\n') {
+            positie++;
+          }
+          lijn++;
+          break;
+        }
+
+        if (matcht(delimiter)) {
+          positie += delimiter.length;
+          if (start) {
+            inQuotes  = true;
+          } else if (matcht(delimiter)) {
+            positie += delimiter.length;
+          }
+          start = false;
+          continue;
+        }
+
+        positie++;
+        start = false;
+        while (positie < limiet && !isSpeciaal(buffer[positie])) {
+          positie++;
+        }
+      }
+
+      return true;
+    }
+
+    /**
+     * Telt een regeleinde binnen een veld zoals CsvLezer. Een LF na een CR
+     * hoort bij hetzelfde regeleinde.
+     */
+    private void telRegeleinde(byte teken) {
+      if (teken == '\r' || (teken == '\n' && !cr)) {
+        lijn++;
+      }
+      cr  = teken == '\r';
+    }
+
+    /**
+     * Zoekt het volgende blok.
+     *
+     * @return null als er geen blok meer is.
+     */
+    private Blok volgendBlok() throws IOException {
+      while (slaRecordOver()) {
+        nummer++;
+        if (getPositie() - blokBegin >= blokGrootte) {
+          return maakBlok();
+        }
+      }
+      if (getPositie() > blokBegin) {
+        return maakBlok();
+      }
+
+      return null;
+    }
+
+    private boolean isSpeciaal(byte teken) {
+      return teken == fieldSeparator[0] || teken == delimiter[0]
+              || teken == '\n' || teken == '\r';
+    }
+
+    private boolean vul(int nodig) throws IOException {
+      if (limiet - positie >= nodig) {
+        return true;
+      }
+      if (eof) {
+        return false;
+      }
+
+      if (positie > 0) {
+        System.arraycopy(buffer, positie, buffer, 0, limiet - positie);
+        basis   += positie;
+        limiet  -= positie;
+        positie  = 0;
+      }
+      while (limiet < nodig) {
+        var gelezen = invoer.read(buffer, limiet, buffer.length - limiet);
+        if (gelezen < 0) {
+          eof = true;
+          return false;
+        }
+        limiet  += gelezen;
+      }
+
+      return true;
+    }
+  }
+
+  /**
+   * Zoekt alle blokken van het bestand.
+   */
+  List<Blok> zoekBlokken() throws BestandException {
+    var blokken = new ArrayList<Blok>();
+    try (var invoer = BestandFabriek.openInvoer(bestand)) {
+      var scanner = new Scanner(invoer);
+      Blok  blok;
+      while (null != (blok = scanner.volgendBlok())) {
+        blokken.add(blok);
+      }
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+
+    return blokken;
+  }
+
+  private List<String[]> lees(FileChannel kanaal, Blok blok,
+                              Consumer<String[]> verwerker)
+      throws BestandException, IOException {
+    var data      = ByteBuffer.allocate((int) (blok.einde - blok.begin));
+    var positie   = blok.begin;
+    while (data.hasRemaining()) {
+      var gelezen = kanaal.read(data, positie);
+      if (gelezen < 0) {
+        break;
+      }
+      positie += gelezen;
+    }
+
+    var lezer     = new CsvLezer(
+        new InputStreamReader(new ByteArrayInputStream(data.array(), 0,
+                                                       data.position()),
+                              charset),
+        delimiter, fieldSeparator);
+    var record    = new CsvRecord(new HashMap<>());
+    var resultaat = null == verwerker ? new ArrayList<String[]>() : null;
+    while (lezer.leesRecord(record)) {
+      if (record.getAantal() != kolommen) {
+        throw new BestandException(MessageFormat.format(
+            resourceBundle.getString(BestandConstants.ERR_CSV_KOLOM_AANTAL),
+                                     record.getAantal(), kolommen,
+                                     blok.eersteLijn + lezer.getBeginLijn()
+                                       - 1));
+      }
+      if (null == verwerker) {
+        resultaat.add(record.getVelden());
+      } else {
+        verwerker.accept(record.getVelden());
+      }
+    }
+
+    return resultaat;
+  }
+
+  /**
+   * Leest alle records van een blok.
+   */
+  List<String[]> leesBlok(Blok blok) throws BestandException {
+    try (var kanaal = BestandFabriek.openKanaal(bestand)) {
+      return lees(kanaal, blok, null);
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+  }
+
+  private void lever(Future<List<String[]>> taak,
+                     Consumer<String[]> verwerker)
+      throws BestandException {
+    try {
+      var resultaat = taak.get();
+      if (null != resultaat) {
+        resultaat.forEach(verwerker);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BestandException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof BestandException) {
+        throw (BestandException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new BestandException(e.getCause());
+    }
+  }
+
+  /**
+   * Verwerkt alle records. Als de records geordend moeten zijn dan wordt de
+   * verwerker opgeroepen in de thread van de aanroeper, anders in de threads
+   * die de blokken lezen. De verwerker moet dan thread-safe zijn.
+   *
+   * @param verwerker
+   * @return het aantal verwerkte records.
+   * @throws BestandException
+   */
+  long verwerk(Consumer<String[]> verwerker) throws BestandException {
+    var pool    = Executors.newFixedThreadPool(threads);
+    var taken   = new ArrayDeque<Future<List<String[]>>>();
+
+    try (var invoer = BestandFabriek.openInvoer(bestand);
+         var kanaal = BestandFabriek.openKanaal(bestand)) {
+      var scanner = new Scanner(invoer);
+      var uit     = geordend ? null : verwerker;
+      Blok  blok;
+      while (null != (blok = scanner.volgendBlok())) {
+        var taak  = blok;
+        taken.add(pool.submit(() -> lees(kanaal, taak, uit)));
+        while (taken.size() >= threads * 2) {
+          lever(taken.poll(), verwerker);
+        }
+      }
+
+      while (!taken.isEmpty()) {
+        lever(taken.poll(), verwerker);
+      }
+
+      return scanner.getAantal();
+    } catch (IOException e) {
+      throw new BestandException(e);
+    } finally {
+      taken.forEach(taak -> taak.cancel(true));
+      pool.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,419 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.text.MessageFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Een record van een CsvBestand. De velden zijn views op de buffer van het
+ * record en worden niet gekopieerd. Het record wordt door het CsvBestand
+ * hergebruikt en is enkel geldig tot de volgende oproep van nextRecord() of
+ * next(). Gebruik getVelden() of toString() op een veld om de gegevens te
+ * bewaren.
+ *
+ * De getters voor primitieve types en datums lezen rechtstreeks uit de buffer
+ * zonder eerst een String te maken.
+ */
+public final class CsvRecord {
+  private static final  ResourceBundle  resourceBundle  =
+      ResourceBundle.getBundle("DoosUtils-file", Locale.getDefault());
+
+  private static final  double[]  MACHTEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+    1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  private final Map<String, Integer>  kolommen;
+
+  private int     aantal  = 0;
+  private int[]   begins  = new int[16];
+  private int[]   eindes  = new int[16];
+  private int     lengte  = 0;
+  private long    lijn    = 0;
+  private char[]  tekens  = new char[256];
+  private Veld[]  velden  = new Veld[0];
+
+  CsvRecord(Map<String, Integer> kolommen) {
+    this.kolommen = kolommen;
+  }
+
+  private final class Veld implements CharSequence {
+    private final int index;
+
+    private Veld(int index) {
+      this.index  = index;
+    }
+
+    @Override
+    public char charAt(int positie) {
+      if (positie < 0 || positie >= length()) {
+        throw new IndexOutOfBoundsException(String.valueOf(positie));
+      }
+
+      return tekens[begins[index] + positie];
+    }
+
+    @Override
+    public int length() {
+      return eindes[index] - begins[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int einde) {
+      if (start < 0 || einde > length() || start > einde) {
+        throw new IndexOutOfBoundsException(String.valueOf(start));
+      }
+
+      return new String(tekens, begins[index] + start, einde - start);
+    }
+
+    @Override
+    public String toString() {
+      return new String(tekens, begins[index], length());
+    }
+  }
+
+  void append(char teken) {
+    if (lengte == tekens.length) {
+      tekens  = Arrays.copyOf(tekens, lengte * 2);
+    }
+    tekens[lengte++]  = teken;
+  }
+
+  private int cijfer(int positie) {
+    var cijfer  = tekens[positie] - '0';
+    if (cijfer < 0 || cijfer > 9) {
+      return -1;
+    }
+
+    return cijfer;
+  }
+
+  private BestandException fout(int index, Object kolom, String type) {
+    return new BestandException(MessageFormat.format(
+        resourceBundle.getString(BestandConstants.ERR_CSV_VELD_FOUT),
+                                 kolom, lijn, type, velden[index]));
+  }
+
+  public int getAantal() {
+    return aantal;
+  }
+
+  public boolean getBoolean(int index) throws BestandException {
+    return parseBoolean(controleer(index), index);
+  }
+
+  public boolean getBoolean(String kolomNaam) throws BestandException {
+    return parseBoolean(getIndex(kolomNaam), kolomNaam);
+  }
+
+  public double getDouble(int index) throws BestandException {
+    return parseDouble(controleer(index), index);
+  }
+
+  public double getDouble(String kolomNaam) throws BestandException {
+    return parseDouble(getIndex(kolomNaam), kolomNaam);
+  }
+
+  public int getInt(int index) throws BestandException {
+    return (int) parseLong(controleer(index), index, "int",
+                           Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  public int getInt(String kolomNaam) throws BestandException {
+    return (int) parseLong(getIndex(kolomNaam), kolomNaam, "int",
+                           Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @return de lijn waarop het record begint, geteld vanaf de eerste lijn na
+   *         de kop. Een veld met regeleindes telt voor meerdere lijnen.
+   */
+  public long getLijn() {
+    return lijn;
+  }
+
+  public LocalDate getLocalDate(int index) throws BestandException {
+    return parseLocalDate(controleer(index), index, null);
+  }
+
+  public LocalDate getLocalDate(int index, DateTimeFormatter formaat)
+      throws BestandException {
+    return parseLocalDate(controleer(index), index, formaat);
+  }
+
+  public LocalDate getLocalDate(String kolomNaam) throws BestandException {
+    return parseLocalDate(getIndex(kolomNaam), kolomNaam, null);
+  }
+
+  public LocalDate getLocalDate(String kolomNaam, DateTimeFormatter formaat)
+      throws BestandException {
+    return parseLocalDate(getIndex(kolomNaam), kolomNaam, formaat);
+  }
+
+  public long getLong(int index) throws BestandException {
+    return parseLong(controleer(index), index, "long",
+                     Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  public long getLong(String kolomNaam) throws BestandException {
+    return parseLong(getIndex(kolomNaam), kolomNaam, "long",
+                     Long.MIN_VALUE, Long.MAX_VALUE);
+  }
+
+  public CharSequence getVeld(int index) {
+    return velden[controleer(index)];
+  }
+
+  public CharSequence getVeld(String kolomNaam) throws BestandException {
+    return getVeld(getIndex(kolomNaam));
+  }
+
+  public String[] getVelden() {
+    var resultaat = new String[aantal];
+    for (var i = 0; i < aantal; i++) {
+      resultaat[i]  = velden[i].toString();
+    }
+
+    return resultaat;
+  }
+
+  public boolean isLeeg(int index) {
+    return velden[controleer(index)].length() == 0;
+  }
+
+  public boolean isLeeg(String kolomNaam) throws BestandException {
+    return isLeeg(getIndex(kolomNaam));
+  }
+
+  private boolean parseBoolean(int index, Object kolom)
+      throws BestandException {
+    if (vergelijk(index, "true")) {
+      return true;
+    }
+    if (vergelijk(index, "false")) {
+      return false;
+    }
+
+    throw fout(index, kolom, "boolean");
+  }
+
+  /**
+   * Een getal met hoogstens 15 cijfers en zonder exponent wordt zonder String
+   * omgezet. Dit geeft hetzelfde resultaat als Double.parseDouble. Andere
+   * getallen gaan via Double.parseDouble.
+   */
+  private double parseDouble(int index, Object kolom)
+      throws BestandException {
+    var begin     = begins[index];
+    var einde     = eindes[index];
+    var cijfers   = 0;
+    var decimalen = -1;
+    var gelezen   = 0;
+    var mantisse  = 0L;
+    var negatief  = false;
+    var positie   = begin;
+
+    if (positie < einde
+        && (tekens[positie] == '-' || tekens[positie] == '+')) {
+      negatief  = tekens[positie] == '-';
+      positie++;
+    }
+
+    while (positie < einde) {
+      if (tekens[positie] == '.' && decimalen < 0) {
+        decimalen = 0;
+        positie++;
+        continue;
+      }
+      var cijfer  = cijfer(positie);
+      if (cijfer < 0 || cijfers == 15) {
+        break;
+      }
+      mantisse  = mantisse * 10 + cijfer;
+      gelezen++;
+      if (mantisse > 0) {
+        cijfers++;
+      }
+      if (decimalen >= 0) {
+        decimalen++;
+      }
+      positie++;
+    }
+
+    if (positie == einde && gelezen > 0 && decimalen < MACHTEN.length) {
+      var waarde  = decimalen > 0 ? mantisse / MACHTEN[decimalen] : mantisse;
+      return negatief ? -waarde : waarde;
+    }
+
+    try {
+      return Double.parseDouble(velden[index].toString());
+    } catch (NumberFormatException e) {
+      throw fout(index, kolom, "double");
+    }
+  }
+
+  private LocalDate parseLocalDate(int index, Object kolom,
+                                   DateTimeFormatter formaat)
+      throws BestandException {
+    try {
+      if (null != formaat) {
+        return formaat.parse(velden[index], LocalDate::from);
+      }
+
+      var begin = begins[index];
+      if (eindes[index] - begin == 10
+          && tekens[begin + 4] == '-' && tekens[begin + 7] == '-') {
+        var jaar  = parseCijfers(begin, 4);
+        var maand = parseCijfers(begin + 5, 2);
+        var dag   = parseCijfers(begin + 8, 2);
+        if (jaar >= 0 && maand >= 0 && dag >= 0) {
+          return LocalDate.of(jaar, maand, dag);
+        }
+      }
+
+      return DateTimeFormatter.ISO_LOCAL_DATE.parse(velden[index],
+                                                    LocalDate::from);
+    } catch (DateTimeException e) {
+      throw fout(index, kolom, "datum");
+    }
+  }
+
+  private int parseCijfers(int begin, int lengte) {
+    var waarde  = 0;
+    for (var i = begin; i < begin + lengte; i++) {
+      var cijfer  = cijfer(i);
+      if (cijfer < 0) {
+        return -1;
+      }
+      waarde  = waarde * 10 + cijfer;
+    }
+
+    return waarde;
+  }
+
+  /**
+   * Zet het veld om zoals Long.parseLong doet maar zonder String. De waarde
+   * wordt negatief opgebouwd zodat ook de kleinste waarde past.
+   */
+  private long parseLong(int index, Object kolom, String type,
+                         long minimum, long maximum)
+      throws BestandException {
+    var einde     = eindes[index];
+    var negatief  = false;
+    var positie   = begins[index];
+
+    if (positie < einde
+        && (tekens[positie] == '-' || tekens[positie] == '+')) {
+      negatief  = tekens[positie] == '-';
+      positie++;
+    }
+    if (positie == einde) {
+      throw fout(index, kolom, type);
+    }
+
+    var limiet    = negatief ? minimum : -maximum;
+    var grens     = limiet / 10;
+    var waarde    = 0L;
+    while (positie < einde) {
+      var cijfer  = cijfer(positie);
+      if (cijfer < 0 || waarde < grens) {
+        throw fout(index, kolom, type);
+      }
+      waarde  *= 10;
+      if (waarde < limiet + cijfer) {
+        throw fout(index, kolom, type);
+      }
+      waarde  -= cijfer;
+      positie++;
+    }
+
+    return negatief ? waarde : -waarde;
+  }
+
+  private int controleer(int index) {
+    if (index < 0 || index >= aantal) {
+      throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+
+    return index;
+  }
+
+  int getIndex(String kolomNaam) throws BestandException {
+    var index = kolommen.get(kolomNaam);
+    if (null == index) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_CSV_ONBEKEND),
+                                                      kolomNaam));
+    }
+
+    return index;
+  }
+
+  void reset() {
+    aantal  = 0;
+    lengte  = 0;
+  }
+
+  void setLijn(long lijn) {
+    this.lijn = lijn;
+  }
+
+  void sluitVeld() {
+    eindes[aantal]  = lengte;
+    aantal++;
+  }
+
+  void startVeld() {
+    if (aantal == begins.length) {
+      begins  = Arrays.copyOf(begins, aantal * 2);
+      eindes  = Arrays.copyOf(eindes, aantal * 2);
+    }
+    if (aantal == velden.length) {
+      velden  = Arrays.copyOf(velden, begins.length);
+      for (var i = aantal; i < velden.length; i++) {
+        velden[i] = new Veld(i);
+      }
+    }
+    begins[aantal]  = lengte;
+  }
+
+  private boolean vergelijk(int index, String waarde) {
+    var begin = begins[index];
+    if (eindes[index] - begin != waarde.length()) {
+      return false;
+    }
+
+    for (var i = 0; i < waarde.length(); i++) {
+      if (Character.toLowerCase(tekens[begin + i]) != waarde.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
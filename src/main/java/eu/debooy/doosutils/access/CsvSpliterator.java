@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import eu.debooy.doosutils.exception.UncheckedBestandException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Spliterator voor de records van een CsvBestand. Zolang er niet gesplitst
+ * wordt, worden de records met next() gelezen. Bij de eerste trySplit wordt
+ * een bestand op het filesystem in blokken verdeeld (zie CsvParallelLezer)
+ * die elk apart gelezen worden. Anders wordt er gesplitst in reeksen van
+ * gelezen records.
+ */
+final class CsvSpliterator extends Spliterators.AbstractSpliterator<String[]> {
+  private static final  int KENMERKEN = Spliterator.ORDERED
+                                        | Spliterator.NONNULL;
+
+  private CsvBestand          bron;
+  private List<CsvParallelLezer.Blok>
+                              blokken;
+  private CsvParallelLezer    lezer;
+  private Iterator<String[]>  records;
+  private int                 tot;
+  private int                 van;
+
+  CsvSpliterator(CsvBestand bron) {
+    super(Long.MAX_VALUE, KENMERKEN);
+    this.bron = bron;
+  }
+
+  private CsvSpliterator(CsvParallelLezer lezer,
+                         List<CsvParallelLezer.Blok> blokken,
+                         int van, int tot) {
+    super(Long.MAX_VALUE, KENMERKEN);
+    this.blokken  = blokken;
+    this.lezer    = lezer;
+    this.tot      = tot;
+    this.van      = van;
+  }
+
+  @Override
+  public long estimateSize() {
+    if (null == bron) {
+      return tot - van;
+    }
+
+    return super.estimateSize();
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super String[]> actie) {
+    try {
+      if (null != bron) {
+        if (!bron.hasNext()) {
+          return false;
+        }
+        actie.accept(bron.next());
+        return true;
+      }
+
+      while (null == records || !records.hasNext()) {
+        if (van >= tot) {
+          return false;
+        }
+        records = lezer.leesBlok(blokken.get(van++)).iterator();
+      }
+    } catch (BestandException e) {
+      throw new UncheckedBestandException(e);
+    }
+
+    actie.accept(records.next());
+    return true;
+  }
+
+  @Override
+  public Spliterator<String[]> trySplit() {
+    if (null != bron) {
+      lezer = bron.getParallelLezer();
+      if (null == lezer) {
+        return super.trySplit();
+      }
+      try {
+        blokken = lezer.zoekBlokken();
+      } catch (BestandException e) {
+        throw new UncheckedBestandException(e);
+      }
+      bron  = null;
+      tot   = blokken.size();
+      van   = 0;
+    }
+
+    if ((null != records && records.hasNext())
+        || tot - van < 2) {
+      return null;
+    }
+
+    var midden  = (van + tot) >>> 1;
+    var prefix  = new CsvSpliterator(lezer, blokken, van, midden);
+    van = midden;
+
+    return prefix;
+  }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Een checksum (CRC32 of CRC32C) of een MessageDigest (bv. SHA-256) achter 1
+ * interface. Met tee() wordt de digest berekend terwijl de gegevens gelezen
+ * of geschreven worden zodat er geen extra keer over de gegevens gelezen moet
+ * worden.
+ *
+ * Een Digest is niet thread safe.
+ */
+public final class Digest {
+  private static final  ResourceBundle  resourceBundle  =
+      ResourceBundle.getBundle("DoosUtils-file", Locale.getDefault());
+
+  public static final String  CRC32   = "CRC32";
+  public static final String  CRC32C  = "CRC32C";
+  public static final String  MD5     = "MD5";
+  public static final String  SHA256  = "SHA-256";
+  public static final String  SHA512  = "SHA-512";
+
+  private static final  char[]  HEX = "0123456789abcdef".toCharArray();
+
+  private final String        algoritme;
+  private final Checksum      checksum;
+  private final MessageDigest messageDigest;
+
+  private Digest(String algoritme, Checksum checksum,
+                 MessageDigest messageDigest) {
+    this.algoritme      = algoritme;
+    this.checksum       = checksum;
+    this.messageDigest  = messageDigest;
+  }
+
+  /**
+   * Geeft de digest en begint opnieuw. Een checksum geeft 4 bytes in big
+   * endian.
+   */
+  public byte[] digest() {
+    if (null != messageDigest) {
+      return messageDigest.digest();
+    }
+
+    var waarde  = checksum.getValue();
+    checksum.reset();
+
+    return new byte[] {(byte) (waarde >>> 24), (byte) (waarde >>> 16),
+                       (byte) (waarde >>> 8), (byte) waarde};
+  }
+
+  public String getAlgoritme() {
+    return algoritme;
+  }
+
+  /**
+   * @param algoritme CRC32, CRC32C of een algoritme van MessageDigest.
+   * @throws BestandException als het algoritme onbekend is.
+   */
+  public static Digest getInstance(String algoritme) throws BestandException {
+    if (CRC32.equalsIgnoreCase(algoritme)) {
+      return new Digest(CRC32, new CRC32(), null);
+    }
+    if (CRC32C.equalsIgnoreCase(algoritme)) {
+      return new Digest(CRC32C, new CRC32C(), null);
+    }
+
+    try {
+      return new Digest(algoritme, null, MessageDigest.getInstance(algoritme));
+    } catch (NoSuchAlgorithmException e) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_DIGEST_ONBEKEND),
+                                   algoritme));
+    }
+  }
+
+  /**
+   * Leest de InputStream en geeft alles aan de Digest.
+   */
+  public InputStream tee(InputStream invoer) {
+    return new FilterInputStream(invoer) {
+      @Override
+      public int read() throws IOException {
+        var teken = super.read();
+        if (teken >= 0) {
+          update(new byte[] {(byte) teken}, 0, 1);
+        }
+
+        return teken;
+      }
+
+      @Override
+      public int read(byte[] buffer, int begin, int lengte)
+          throws IOException {
+        var gelezen = super.read(buffer, begin, lengte);
+        if (gelezen > 0) {
+          update(buffer, begin, gelezen);
+        }
+
+        return gelezen;
+      }
+
+      @Override
+      public long skip(long aantal) throws IOException {
+        if (aantal <= 0) {
+          return 0;
+        }
+
+        return Math.max(0, read(new byte[(int) Math.min(aantal, 8192)]));
+      }
+
+      @Override
+      public boolean markSupported() {
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Schrijft naar de OutputStream en geeft alles aan de Digest.
+   */
+  public OutputStream tee(OutputStream uitvoer) {
+    return new FilterOutputStream(uitvoer) {
+      @Override
+      public void write(int teken) throws IOException {
+        out.write(teken);
+        update(new byte[] {(byte) teken}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] buffer, int begin, int lengte)
+          throws IOException {
+        out.write(buffer, begin, lengte);
+        update(buffer, begin, lengte);
+      }
+    };
+  }
+
+  public static String toHex(byte[] digest) {
+    var hex = new char[digest.length * 2];
+    for (var i = 0; i < digest.length; i++) {
+      hex[i * 2]      = HEX[(digest[i] >> 4) & 0x0f];
+      hex[i * 2 + 1]  = HEX[digest[i] & 0x0f];
+    }
+
+    return new String(hex);
+  }
+
+  public void update(byte[] buffer, int begin, int lengte) {
+    if (null != messageDigest) {
+      messageDigest.update(buffer, begin, lengte);
+    } else {
+      checksum.update(buffer, begin, lengte);
+    }
+  }
+
+  /**
+   * Geeft de bytes tussen position en limit aan de Digest. Na afloop staat
+   * position op limit. Bij een direct ByteBuffer wordt er niets gekopieerd.
+   */
+  public void update(ByteBuffer buffer) {
+    if (null != messageDigest) {
+      messageDigest.update(buffer);
+    } else {
+      checksum.update(buffer);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Leest de lijnen van een bestand via een MappedByteBuffer. Het bestand wordt
+ * in vensters van hoogstens VENSTER bytes gemapt zodat ook bestanden van meer
+ * dan 2 GB gelezen kunnen worden. De regeleindes worden op byte niveau
+ * gezocht en elke lijn wordt in 1 keer gedecodeerd. Dit werkt enkel voor de
+ * charsets waarvoor Bestand.isSplitsbaar(Charset) true geeft.
+ *
+ * De lijnen zijn dezelfde als die van BufferedReader.readLine().
+ */
+final class GemapteLezer implements AutoCloseable {
+  private static final  int VENSTER = 64 * 1024 * 1024;
+
+  private final Charset     charset;
+  private final long        grootte;
+  private final FileChannel kanaal;
+
+  private long              basis   = 0;
+  private MappedByteBuffer  buffer;
+  private boolean           cr      = false;
+  private byte[]            lijn    = new byte[256];
+
+  GemapteLezer(Path bestand, Charset charset) throws IOException {
+    this.charset  = charset;
+    this.kanaal   = BestandFabriek.openKanaal(bestand);
+    this.grootte  = kanaal.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    buffer  = null;
+    kanaal.close();
+  }
+
+  private int kopieer(int lengte, int aantal) {
+    if (lengte + aantal > lijn.length) {
+      lijn  = Arrays.copyOf(lijn, Math.max(lijn.length * 2, lengte + aantal));
+    }
+    buffer.get(lijn, lengte, aantal);
+
+    return lengte + aantal;
+  }
+
+  /**
+   * Geeft de volgende lijn zonder regeleinde.
+   *
+   * @return null als er geen lijn meer is.
+   * @throws IOException
+   */
+  String leesLijn() throws IOException {
+    if (cr) {
+      cr  = false;
+      if (vul() && buffer.get(buffer.position()) == '\n') {
+        buffer.position(buffer.position() + 1);
+      }
+    }
+
+    var gelezen = false;
+    var lengte  = 0;
+    while (vul()) {
+      gelezen     = true;
+      var begin   = buffer.position();
+      var limiet  = buffer.limit();
+      var positie = begin;
+      while (positie < limiet) {
+        var teken = buffer.get(positie);
+        if (teken == '\n' || teken == '\r') {
+          break;
+        }
+        positie++;
+      }
+
+      lengte  = kopieer(lengte, positie - begin);
+      if (positie < limiet) {
+        cr  = buffer.get() == '\r';
+        return new String(lijn, 0, lengte, charset);
+      }
+    }
+
+    if (!gelezen) {
+      return null;
+    }
+
+    return new String(lijn, 0, lengte, charset);
+  }
+
+  /**
+   * Mapt het volgende venster als het huidige venster gelezen is.
+   *
+   * @return false op het einde van het bestand.
+   */
+  private boolean vul() throws IOException {
+    if (null != buffer) {
+      if (buffer.hasRemaining()) {
+        return true;
+      }
+      basis  += buffer.limit();
+      buffer  = null;
+    }
+    if (basis >= grootte) {
+      return false;
+    }
+
+    buffer  = kanaal.map(FileChannel.MapMode.READ_ONLY, basis,
+                         Math.min(VENSTER, grootte - basis));
+
+    return true;
+  }
+}
@@ -19,16 +19,21 @@ package eu.debooy.doosutils.access;
 import eu.debooy.doosutils.exception.BestandException;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -44,26 +49,45 @@ public class JsonBestand implements AutoCloseable {
 
   private static final  String  JSONARRAY = "_@jsonarray@_";
 
-  private final boolean     append;
-  private final String      bestand;
-  private final String      charset;
-  private final ClassLoader classLoader;
-  private final boolean     lezen;
-  private final boolean     prettify;
+  private final boolean      append;
+  private final String       bestand;
+  private final String       charset;
+  private final ClassLoader  classLoader;
+  private final Compressie   compressie;
+  private final int          inspringing;
+  private final boolean      lezen;
+  private final boolean      prettify;
+  private final JsonSelectie selectie;
+  private final boolean      streaming;
+  private final String       zip;
 
   private BufferedReader  invoer;
   private JSONObject      json;
+  private JsonLezer       lezer;
+  private JsonSchrijver   schrijver;
   private boolean         tabel;
   private BufferedWriter  uitvoer;
+  private boolean         volgende;
 
   private JsonBestand(Builder builder) throws BestandException {
     append      = builder.isAppend();
     bestand     = builder.getBestand();
     charset     = builder.getCharset();
     classLoader = builder.getClassLoader();
+    compressie  = builder.getCompressie();
+    inspringing = builder.getInspringing();
     lezen       = builder.isReadOnly();
     prettify    = builder.isPrettify();
+    selectie    = builder.getPaden().isEmpty()
+                    ? null : JsonSelectie.maak(builder.getPaden());
+    streaming   = builder.isStreaming();
     tabel       = false;
+    zip         = builder.getZip();
+
+    if (streaming && null != selectie) {
+      throw new BestandException(
+          resourceBundle.getString(BestandConstants.ERR_JSON_PADEN));
+    }
 
     open();
   }
@@ -74,7 +98,12 @@ public class JsonBestand implements AutoCloseable {
     private String      bestand     = "";
     private String      charset     = "UTF-8";
     private ClassLoader classLoader = null;
+    private Compressie  compressie  = Compressie.AUTOMATISCH;
+    private int         inspringing = 2;
     private boolean     lezen       = true;
+    private Set<String> paden       = new LinkedHashSet<>();
+    private boolean     streaming   = false;
+    private String      zip         = null;
 
     public JsonBestand build() throws BestandException {
       return new JsonBestand(this);
@@ -92,6 +121,22 @@ public class JsonBestand implements AutoCloseable {
       return classLoader;
     }
 
+    public Compressie getCompressie() {
+      return compressie;
+    }
+
+    public int getInspringing() {
+      return inspringing;
+    }
+
+    public Set<String> getPaden() {
+      return new LinkedHashSet<>(paden);
+    }
+
+    public String getZip() {
+      return zip;
+    }
+
     public boolean isAppend() {
       return append;
     }
@@ -104,6 +149,10 @@ public class JsonBestand implements AutoCloseable {
       return lezen;
     }
 
+    public boolean isStreaming() {
+      return streaming;
+    }
+
     public Builder setAppend(boolean append) {
       this.append       = append;
       return this;
@@ -124,15 +173,95 @@ public class JsonBestand implements AutoCloseable {
       return this;
     }
 
+    /**
+     * De compressie van het bestand. Met AUTOMATISCH (standaard) wordt GZIP
+     * bij het lezen herkend en wordt een nieuw .gz bestand met GZIP
+     * geschreven.
+     */
+    public Builder setCompressie(Compressie compressie) {
+      this.compressie   = compressie;
+      return this;
+    }
+
+    public Builder setInspringing(int inspringing) {
+      this.inspringing  = inspringing;
+      return this;
+    }
+
     public Builder setLezen(boolean lezen) {
       this.lezen        = lezen;
       return this;
     }
 
+    /**
+     * Leest enkel de gegeven sleutels of paden (bv. a.b[3].c) van het
+     * bestand. De rest wordt overgeslagen zonder er objecten voor te maken.
+     * De gelezen delen staan op hun plaats in read() en kunnen met get() of
+     * getPad() opgevraagd worden. Een gekozen element van een tabel houdt zijn
+     * index. De elementen ervoor zijn null. Kan niet samen met streaming
+     * gebruikt worden.
+     */
+    public Builder setPaden(String... paden) {
+      this.paden        = new LinkedHashSet<>(Arrays.asList(paden));
+      return this;
+    }
+
     public Builder setPrettify(boolean prettify) {
       this.prettify     = prettify;
       return this;
     }
+
+    /**
+     * Leest de elementen van een tabel een voor een met hasNext() en next()
+     * in plaats van het hele bestand in 1 keer. Is het bestand geen tabel dan
+     * geeft next() de hele inhoud als 1 element. De methodes die de hele
+     * inhoud nodig hebben (read(), get(),...) kunnen dan niet gebruikt worden.
+     */
+    public Builder setStreaming(boolean streaming) {
+      this.streaming    = streaming;
+      return this;
+    }
+
+    /**
+     * Leest het bestand als entry uit deze zip zonder het uit te pakken.
+     */
+    public Builder setZip(String zip) {
+      this.zip          = zip;
+      return this;
+    }
+  }
+
+  /**
+   * Schrijft een element van de tabel in streaming mode. Het element wordt
+   * rechtstreeks naar het bestand geschreven.
+   *
+   * @param element
+   * @throws BestandException
+   */
+  public void add(Object element) throws BestandException {
+    try {
+      start(true).waarde(element);
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+  }
+
+  /**
+   * Schrijft een element van het object in streaming mode. Het element wordt
+   * rechtstreeks naar het bestand geschreven.
+   *
+   * @param sleutel
+   * @param waarde
+   * @throws BestandException
+   */
+  public void add(String sleutel, Object waarde) throws BestandException {
+    try {
+      var uit = start(false);
+      uit.sleutel(sleutel);
+      uit.waarde(waarde);
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
   }
 
   @Override
@@ -147,9 +276,22 @@ public class JsonBestand implements AutoCloseable {
       if (null != invoer) {
         invoer.close();
       }
-      if (null != uitvoer) {
+      if (null != uitvoer && streaming) {
+        if (null == schrijver) {
+          start(null == json || tabel);
+        }
+        if (tabel) {
+          schrijver.eindeTabel();
+        } else {
+          schrijver.eindeObject();
+        }
+        schrijver.sluit();
+        uitvoer.close();
+      } else if (null != uitvoer) {
         if (isPrettify()) {
-          prettifyJson(json, uitvoer);
+          var mooi  = new JsonSchrijver(uitvoer, inspringing);
+          mooi.waarde(json);
+          mooi.sluit();
         } else {
           json.writeJSONString(uitvoer);
         }
@@ -184,6 +326,9 @@ public class JsonBestand implements AutoCloseable {
   }
 
   public String getBestand() {
+    if (null != zip) {
+      return zip + "!/" + bestand;
+    }
     if (null != classLoader) {
       return "CLASSPATH/" + bestand;
     }
@@ -195,20 +340,71 @@ public class JsonBestand implements AutoCloseable {
     return charset;
   }
 
-  private static String getIndent(int tabCount) {
-    StringBuilder builder = new StringBuilder();
+  public Compressie getCompressie() {
+    return compressie;
+  }
+
+  public int getInspringing() {
+    return inspringing;
+  }
 
-    for (var j = 0; j < tabCount; j++) {
-      builder.append("  ");
+  /**
+   * Geeft de waarde op het pad (bv. a.b[3].c of [0].naam).
+   *
+   * @param pad
+   * @return null als het pad niet bestaat.
+   * @throws BestandException als het pad ongeldig is.
+   */
+  public Object getPad(String pad) throws BestandException {
+    Object waarde = read();
+    for (var deel : JsonSelectie.splits(pad)) {
+      if (deel instanceof Integer && waarde instanceof List) {
+        var index = (Integer) deel;
+        var lijst = (List<?>) waarde;
+        waarde    = index < lijst.size() ? lijst.get(index) : null;
+      } else if (deel instanceof String && waarde instanceof Map) {
+        waarde    = ((Map<?, ?>) waarde).get(deel);
+      } else {
+        return null;
+      }
     }
 
-    return builder.toString();
+    return waarde;
+  }
+
+  public boolean hasNext() {
+    return volgende;
+  }
+
+  /**
+   * Schrijft de elementen die bij append gelezen zijn terug.
+   */
+  private void herschrijf() throws IOException {
+    if (null == json) {
+      return;
+    }
+
+    if (tabel) {
+      for (var element : getArray(JSONARRAY)) {
+        schrijver.waarde(element);
+      }
+    } else {
+      for (var element : ((Map<?, ?>) json).entrySet()) {
+        schrijver.sleutel(String.valueOf(element.getKey()));
+        schrijver.waarde(element.getValue());
+      }
+    }
+    json  = null;
   }
 
   public boolean isAppend() {
     return append;
   }
 
+  public boolean isEof() {
+    return !hasNext();
+  }
+
   public boolean isPrettify() {
     return prettify;
   }
@@ -217,6 +413,78 @@ public class JsonBestand implements AutoCloseable {
     return lezen;
   }
 
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  /**
+   * Zoekt de laatste byte voor positie die geen witruimte is.
+   *
+   * @return -1 als er enkel witruimte is.
+   */
+  private static long laatsteTeken(FileChannel kanaal, long positie,
+                                   ByteBuffer buffer)
+      throws IOException {
+    while (positie > 0) {
+      var begin = Math.max(0, positie - buffer.capacity());
+      buffer.clear();
+      buffer.limit((int) (positie - begin));
+      while (buffer.hasRemaining()) {
+        if (kanaal.read(buffer, begin + buffer.position()) < 0) {
+          break;
+        }
+      }
+      for (var i = buffer.position() - 1; i >= 0; i--) {
+        var teken = buffer.get(i);
+        if (teken != ' ' && teken != '\t' && teken != '\n' && teken != '\r') {
+          return begin + i;
+        }
+      }
+      positie = begin;
+    }
+
+    return -1;
+  }
+
+  private static byte leesByte(FileChannel kanaal, long positie)
+      throws IOException {
+    var buffer  = ByteBuffer.allocate(1);
+    kanaal.read(buffer, positie);
+
+    return buffer.get(0);
+  }
+
+  private void maakSchrijver() {
+    schrijver = prettify ? new JsonSchrijver(uitvoer, inspringing)
+                         : new JsonSchrijver(uitvoer);
+  }
+
+  /**
+   * Geeft het volgende element in streaming mode. Enkel dit element wordt in
+   * het geheugen gehouden.
+   *
+   * @return een JSONObject, JSONArray, String, Long, Double, Boolean of null.
+   * @throws BestandException
+   */
+  public Object next() throws BestandException {
+    if (isEof()) {
+      throw new BestandException(
+          resourceBundle.getString(BestandConstants.ERR_BEST_EOF));
+    }
+
+    try {
+      var element = lezer.leesWaarde();
+      volgende    = tabel && lezer.volgendElement();
+      if (!volgende) {
+        lezer.controleerEinde();
+      }
+
+      return element;
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+  }
+
   public final void open() throws BestandException {
     if (null != invoer
         || null != uitvoer) {
@@ -225,104 +493,144 @@ public class JsonBestand implements AutoCloseable {
     }
 
     try {
-      if (null == classLoader) {
+      if (null != zip) {
+        openInZip();
+      } else if (null == classLoader) {
         openBestand();
       } else {
         openInClasspath();
       }
-    } catch (UnsupportedEncodingException | FileNotFoundException e) {
+    } catch (IOException e) {
       throw new BestandException(e);
     }
 
     if (lezen) {
-      readBestand();
+      if (streaming) {
+        startStreaming();
+      } else {
+        readBestand();
+      }
+    }
+  }
+
+  /**
+   * Maakt het bestand klaar om aan de tabel of het object op het einde van
+   * het bestand nieuwe elementen toe te voegen. Het afsluitende teken en de
+   * witruimte ervoor worden verwijderd zodat enkel de nieuwe elementen
+   * geschreven moeten worden. Dit gebeurt pas als de schrijver open is. Een
+   * bestand met enkel het afsluitende teken wordt niet aangevuld.
+   *
+   * @return false als het bestand leeg is.
+   */
+  private boolean openAanvullen() throws BestandException, IOException {
+    var pad = Paths.get(bestand);
+    if (!Files.exists(pad)) {
+      return false;
+    }
+
+    boolean leeg;
+    long    lengte;
+    try (var kanaal = BestandFabriek.openKanaal(pad)) {
+      var buffer  = ByteBuffer.allocate(4096);
+      var einde   = laatsteTeken(kanaal, kanaal.size(), buffer);
+      if (einde < 0) {
+        return false;
+      }
+
+      var slot    = leesByte(kanaal, einde);
+      if (slot != ']' && slot != '}') {
+        throw new BestandException(MessageFormat.format(
+            resourceBundle.getString(BestandConstants.ERR_JSON_SYNTAX),
+                                     einde, "] }"));
+      }
+      var vorige  = laatsteTeken(kanaal, einde, buffer);
+      tabel       = slot == ']';
+      if (vorige < 0) {
+        throw new BestandException(MessageFormat.format(
+            resourceBundle.getString(BestandConstants.ERR_JSON_STRUCTUUR),
+            tabel ? "tabel" : "object"));
+      }
+      leeg        = leesByte(kanaal, vorige) == (tabel ? '[' : '{');
+      lengte      = vorige + 1;
     }
+
+    var kanaal  = BestandFabriek.openUitvoerKanaal(pad, true);
+    try {
+      uitvoer   = BestandFabriek.openSchrijver(Channels.newOutputStream(kanaal),
+                                               charset);
+      maakSchrijver();
+      schrijver.hervat(leeg);
+      kanaal.truncate(lengte);
+    } catch (IOException | RuntimeException e) {
+      kanaal.close();
+      uitvoer   = null;
+      schrijver = null;
+      throw e;
+    }
+
+    return true;
   }
 
-  private void openBestand() throws BestandException,
-      FileNotFoundException, UnsupportedEncodingException  {
+  private void openBestand() throws BestandException, IOException {
+    var pad   = Paths.get(bestand);
+    var soort = lezen ? BestandFabriek.bepaalCompressie(pad, compressie)
+                      : BestandFabriek.bepaalCompressie(pad, compressie,
+                                                        append);
+    if (append && streaming && !lezen
+        && Compressie.GEEN == soort
+        && Bestand.isSplitsbaar(Charset.forName(charset))
+        && openAanvullen()) {
+      return;
+    }
+
     if (lezen || append) {
-      invoer  = new BufferedReader(
-                  new InputStreamReader(
-                    new FileInputStream (bestand), charset));
+      invoer  = BestandFabriek.openLezer(pad, charset, soort);
     }
     if (append) {
       readBestand();
       close();
     }
     if (!lezen) {
-      uitvoer = new BufferedWriter(
-                  new OutputStreamWriter(
-                    new FileOutputStream(bestand), charset));
+      uitvoer = BestandFabriek.openSchrijver(pad, charset, false, soort);
     }
   }
 
-  private void openInClasspath()
-      throws BestandException, UnsupportedEncodingException {
+  private void openInClasspath() throws BestandException, IOException {
     if (lezen) {
-      invoer  = new BufferedReader(
-                  new InputStreamReader(
-                      classLoader.getResourceAsStream(bestand), charset));
+      invoer  = BestandFabriek.openLezer(
+                  BestandFabriek.openInvoer(
+                      classLoader.getResourceAsStream(bestand), compressie),
+                  charset);
     } else {
       throw new BestandException(
           resourceBundle.getString(BestandConstants.ERR_CLP_READONLY));
     }
   }
 
-  private void prettifyJson(JSONObject json, BufferedWriter uitvoer)
-      throws IOException {
-    var inputChar = json.toJSONString().toCharArray();
-    var inString  = false;
-    var regel     = new StringBuilder();
-    var tabCount  = 0;
-
-    for (var i = 0; i < inputChar.length; i++) {
-      String  teken = String.valueOf(inputChar[i]);
-
-      if (inString) {
-        regel.append(teken);
-        if (teken.equals("\"")
-            && !String.valueOf(inputChar[i - 1]).equals("\\")) {
-          inString  = false;
-        }
-        continue;
-      }
-
-      if (teken.equals("\"")) {
-        regel.append(teken);
-        inString  = true;
-        continue;
-      }
+  private void openInZip() throws BestandException, IOException {
+    if (lezen) {
+      invoer  = BestandFabriek.openLezer(
+                  BestandFabriek.openInvoer(
+                      BestandFabriek.openZipInvoer(Paths.get(zip), bestand),
+                      compressie),
+                  charset);
+    } else {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_ZIP_READONLY), zip));
+    }
+  }
 
-      if (teken.equals("}") || teken.equals("]")) {
-        tabCount--;
-        if (!String.valueOf(inputChar[i - 1]).equals("[")
-            && !String.valueOf(inputChar[i - 1]).equals("{")) {
-        write(regel.toString(), uitvoer);
-        regel = new StringBuilder(getIndent(tabCount));
-        }
-      }
-      regel.append(teken);
-      if (teken.equals(":")) {
-        regel.append(" ");
-      }
+  private Object parse()
+      throws BestandException, IOException, ParseException {
+    if (!lezen || null == selectie) {
+      return new JSONParser().parse(invoer);
+    }
 
-      if (teken.equals("{") || teken.equals("[")) {
-        tabCount++;
-        if (String.valueOf(inputChar[i + 1]).equals("]")
-            || String.valueOf(inputChar[i + 1]).equals("}")) {
-          continue;
-        }
-        write(regel.toString(), uitvoer);
-        regel = new StringBuilder(getIndent(tabCount));
-      }
+    var lezer     = new JsonLezer(invoer);
+    var resultaat = lezer.leesWaarde(selectie);
+    lezer.controleerEinde();
 
-      if (teken.equals(",")) {
-        write(regel.toString(), uitvoer);
-        regel = new StringBuilder(getIndent(tabCount));
-      }
-    }
-    write(regel.toString(), uitvoer);
+    return resultaat;
   }
 
   public Object read() {
@@ -340,9 +648,8 @@ public class JsonBestand implements AutoCloseable {
           bestand));
     }
 
-    var parser  = new JSONParser();
     try {
-      var resultaat = parser.parse(invoer);
+      var resultaat = parse();
       if (resultaat instanceof JSONArray) {
         json  = new JSONObject();
         json.put(JSONARRAY, resultaat);
@@ -359,8 +666,57 @@ public class JsonBestand implements AutoCloseable {
     }
   }
 
+  /**
+   * Begint de tabel of het object bij het eerste element.
+   */
+  private JsonSchrijver start(boolean alsTabel)
+      throws BestandException, IOException {
+    if (lezen) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_BEST_READONLY),
+                                                      bestand));
+    }
+    if (!streaming) {
+      throw new BestandException(
+          resourceBundle.getString(BestandConstants.ERR_JSON_STREAMING));
+    }
+
+    if (null == schrijver) {
+      maakSchrijver();
+      if (null == json) {
+        tabel = alsTabel;
+      }
+      if (tabel) {
+        schrijver.startTabel();
+      } else {
+        schrijver.startObject();
+      }
+      herschrijf();
+    }
+    if (tabel != alsTabel) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_JSON_STRUCTUUR),
+          tabel ? "object" : "tabel"));
+    }
+
+    return schrijver;
+  }
+
+  private void startStreaming() throws BestandException {
+    lezer = new JsonLezer(invoer);
+    try {
+      tabel     = lezer.startTabel();
+      volgende  = !tabel || lezer.volgendElement();
+      if (!volgende) {
+        lezer.controleerEinde();
+      }
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+  }
+
   public void write(JSONObject node) throws BestandException {
-    write(node.toJSONString());
+    json  = node;
   }
 
   public void write(String node) throws BestandException {
@@ -373,8 +729,4 @@ public class JsonBestand implements AutoCloseable {
     }
   }
 
-  private void write(String regel, BufferedWriter uitvoer) throws IOException {
-    uitvoer.write(regel);
-    uitvoer.newLine();
-  }
 }
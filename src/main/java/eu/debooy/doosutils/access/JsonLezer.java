@@ -0,0 +1,440 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Leest JSON waarde per waarde uit een Reader. De waarden zijn van dezelfde
+ * types als die van JSONParser: JSONObject, JSONArray, String, Long, Double,
+ * Boolean of null. Met startTabel() en volgendElement() kunnen de elementen
+ * van een tabel een voor een gelezen worden zonder de hele tabel in het
+ * geheugen te hebben.
+ *
+ * Met een JsonSelectie worden enkel de gekozen delen opgebouwd. De andere
+ * waarden worden overgeslagen zonder er objecten voor te maken en zonder ze
+ * volledig te controleren.
+ */
+final class JsonLezer {
+  private static final  ResourceBundle  resourceBundle  =
+      ResourceBundle.getBundle("DoosUtils-file", Locale.getDefault());
+
+  private static final  int BUFFERGROOTTE = 8192;
+
+  private final char[]  buffer;
+  private final Reader  invoer;
+
+  private long    basis   = 0;
+  private boolean eerste  = true;
+  private int     limiet  = 0;
+  private int     positie = 0;
+
+  JsonLezer(Reader invoer) {
+    this(invoer, BUFFERGROOTTE);
+  }
+
+  JsonLezer(Reader invoer, int buffergrootte) {
+    this.buffer = new char[buffergrootte];
+    this.invoer = invoer;
+  }
+
+  /**
+   * Leest een tekst die 1 volledige waarde bevat.
+   */
+  static Object lees(String tekst) throws BestandException {
+    var lezer = new JsonLezer(new StringReader(tekst),
+                              Math.max(1, Math.min(tekst.length(),
+                                                   BUFFERGROOTTE)));
+    try {
+      var waarde  = lezer.leesWaarde();
+      lezer.controleerEinde();
+
+      return waarde;
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+  }
+
+  /**
+   * Controleert dat er na de laatste waarde enkel nog witruimte staat.
+   */
+  void controleerEinde() throws BestandException, IOException {
+    if (slaWitruimteOver()) {
+      throw fout("EOF");
+    }
+  }
+
+  private BestandException fout(String verwacht) {
+    return new BestandException(MessageFormat.format(
+        resourceBundle.getString(BestandConstants.ERR_JSON_SYNTAX),
+                                 basis + positie, verwacht));
+  }
+
+  private char lees() throws BestandException, IOException {
+    if (!vul()) {
+      throw fout("EOF");
+    }
+
+    return buffer[positie++];
+  }
+
+  private void leesLetterlijk(String woord)
+      throws BestandException, IOException {
+    for (var i = 0; i < woord.length(); i++) {
+      if (!vul() || buffer[positie] != woord.charAt(i)) {
+        throw fout(woord);
+      }
+      positie++;
+    }
+  }
+
+  private Object leesGetal() throws BestandException, IOException {
+    var decimaal  = false;
+    var getal     = new StringBuilder();
+    while (vul()) {
+      var teken = buffer[positie];
+      if ((teken >= '0' && teken <= '9') || teken == '-' || teken == '+') {
+        getal.append(teken);
+      } else if (teken == '.' || teken == 'e' || teken == 'E') {
+        getal.append(teken);
+        decimaal  = true;
+      } else {
+        break;
+      }
+      positie++;
+    }
+
+    if (getal.length() == 0) {
+      throw fout("waarde");
+    }
+
+    try {
+      if (decimaal) {
+        return Double.valueOf(getal.toString());
+      }
+
+      return Long.valueOf(getal.toString());
+    } catch (NumberFormatException e) {
+      throw fout(getal.toString());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private JSONObject leesObject(JsonSelectie selectie)
+      throws BestandException, IOException {
+    var object  = new JSONObject();
+    positie++;
+    if (volgt('}')) {
+      return object;
+    }
+
+    do {
+      if (!volgt('"')) {
+        throw fout("\"");
+      }
+      var sleutel = leesString();
+      if (!volgt(':')) {
+        throw fout(":");
+      }
+      if (null == selectie) {
+        object.put(sleutel, leesWaarde());
+      } else if (null == selectie.getSleutel(sleutel)) {
+        slaWaardeOver();
+      } else {
+        object.put(sleutel, leesWaarde(selectie.getSleutel(sleutel)));
+      }
+    } while (volgt(','));
+
+    if (!volgt('}')) {
+      throw fout("}");
+    }
+
+    return object;
+  }
+
+  /**
+   * Leest een string waarvan het openingsteken al gelezen is.
+   */
+  private String leesString() throws BestandException, IOException {
+    var tekst = new StringBuilder();
+    while (true) {
+      var begin = positie;
+      while (positie < limiet
+             && buffer[positie] != '"' && buffer[positie] != '\\') {
+        positie++;
+      }
+      tekst.append(buffer, begin, positie - begin);
+
+      var teken = lees();
+      if (teken == '"') {
+        return tekst.toString();
+      }
+      if (teken == '\\') {
+        tekst.append(leesEscape());
+      } else {
+        tekst.append(teken);
+      }
+    }
+  }
+
+  private char leesEscape() throws BestandException, IOException {
+    var teken = lees();
+    switch (teken) {
+      case '"':
+      case '\\':
+      case '/':
+        return teken;
+      case 'b':
+        return '\b';
+      case 'f':
+        return '\f';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 't':
+        return '\t';
+      case 'u':
+        var code  = 0;
+        for (var i = 0; i < 4; i++) {
+          var cijfer  = Character.digit(lees(), 16);
+          if (cijfer < 0) {
+            throw fout("hex");
+          }
+          code  = code * 16 + cijfer;
+        }
+        return (char) code;
+      default:
+        throw fout("escape");
+    }
+  }
+
+  /**
+   * Leest een tabel. Met een selectie staan de gekozen elementen op hun
+   * oorspronkelijke index en zijn de elementen ervoor null.
+   */
+  @SuppressWarnings("unchecked")
+  private JSONArray leesTabel(JsonSelectie selectie)
+      throws BestandException, IOException {
+    var tabel = new JSONArray();
+    positie++;
+    if (volgt(']')) {
+      return tabel;
+    }
+
+    var index = 0;
+    do {
+      if (null == selectie) {
+        tabel.add(leesWaarde());
+      } else if (null == selectie.getIndex(index)) {
+        slaWaardeOver();
+      } else {
+        while (tabel.size() < index) {
+          tabel.add(null);
+        }
+        tabel.add(leesWaarde(selectie.getIndex(index)));
+      }
+      index++;
+    } while (volgt(','));
+
+    if (!volgt(']')) {
+      throw fout("]");
+    }
+
+    return tabel;
+  }
+
+  /**
+   * Leest de volgende volledige waarde.
+   */
+  Object leesWaarde() throws BestandException, IOException {
+    return leesWaarde(null);
+  }
+
+  /**
+   * Leest enkel de delen van de volgende waarde die in de selectie staan.
+   *
+   * @param selectie null om alles te lezen.
+   */
+  Object leesWaarde(JsonSelectie selectie)
+      throws BestandException, IOException {
+    if (!slaWitruimteOver()) {
+      throw fout("waarde");
+    }
+
+    var deel  = null == selectie || selectie.isAlles() ? null : selectie;
+    switch (buffer[positie]) {
+      case '{':
+        return leesObject(deel);
+      case '[':
+        return leesTabel(deel);
+      case '"':
+        positie++;
+        return leesString();
+      case 't':
+        leesLetterlijk("true");
+        return Boolean.TRUE;
+      case 'f':
+        leesLetterlijk("false");
+        return Boolean.FALSE;
+      case 'n':
+        leesLetterlijk("null");
+        return null;
+      default:
+        return leesGetal();
+    }
+  }
+
+  private void slaStringOver() throws BestandException, IOException {
+    while (true) {
+      while (positie < limiet
+             && buffer[positie] != '"' && buffer[positie] != '\\') {
+        positie++;
+      }
+
+      var teken = lees();
+      if (teken == '"') {
+        return;
+      }
+      if (teken == '\\') {
+        lees();
+      }
+    }
+  }
+
+  /**
+   * Slaat de volgende waarde over. Van objecten en tabellen worden enkel de
+   * haakjes geteld.
+   */
+  private void slaWaardeOver() throws BestandException, IOException {
+    if (!slaWitruimteOver()) {
+      throw fout("waarde");
+    }
+
+    var teken = buffer[positie];
+    if (teken != '{' && teken != '[' && teken != '"') {
+      leesWaarde();
+      return;
+    }
+
+    var diepte  = 0;
+    do {
+      switch (lees()) {
+        case '{':
+        case '[':
+          diepte++;
+          break;
+        case '}':
+        case ']':
+          diepte--;
+          break;
+        case '"':
+          slaStringOver();
+          break;
+        default:
+          break;
+      }
+    } while (diepte > 0);
+  }
+
+  private boolean slaWitruimteOver() throws IOException {
+    while (vul()) {
+      var teken = buffer[positie];
+      if (teken != ' ' && teken != '\t' && teken != '\n' && teken != '\r') {
+        return true;
+      }
+      positie++;
+    }
+
+    return false;
+  }
+
+  /**
+   * Leest het begin van een tabel als de volgende waarde een tabel is.
+   *
+   * @return true als de volgende waarde een tabel is.
+   */
+  boolean startTabel() throws BestandException, IOException {
+    if (!slaWitruimteOver()) {
+      throw fout("waarde");
+    }
+    eerste  = true;
+
+    return volgt('[');
+  }
+
+  /**
+   * Gaat naar het volgende element van de tabel die met startTabel() begonnen
+   * is.
+   *
+   * @return false op het einde van de tabel.
+   */
+  boolean volgendElement() throws BestandException, IOException {
+    if (eerste) {
+      eerste  = false;
+      return !volgt(']');
+    }
+    if (volgt(',')) {
+      return true;
+    }
+    if (volgt(']')) {
+      return false;
+    }
+
+    throw fout("]");
+  }
+
+  /**
+   * Leest het teken als het, na eventuele witruimte, het volgende teken is.
+   */
+  private boolean volgt(char teken) throws IOException {
+    if (slaWitruimteOver() && buffer[positie] == teken) {
+      positie++;
+      return true;
+    }
+
+    return false;
+  }
+
+  private boolean vul() throws IOException {
+    if (positie < limiet) {
+      return true;
+    }
+
+    basis  += limiet;
+    positie = 0;
+    limiet  = 0;
+    var gelezen = invoer.read(buffer, 0, buffer.length);
+    if (gelezen <= 0) {
+      return false;
+    }
+    limiet  = gelezen;
+
+    return true;
+  }
+}
@@ -0,0 +1,388 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import eu.debooy.doosutils.exception.UncheckedBestandException;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.json.simple.JSONValue;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Een JSON Lines (NDJSON) bestand. Elke lijn bevat 1 JSON waarde. Lege lijnen
+ * worden overgeslagen. Omdat elke lijn apart gelezen en geschreven wordt
+ * blijft het geheugengebruik beperkt tot 1 lijn.
+ */
+public class JsonLinesBestand implements AutoCloseable {
+  private static final  ResourceBundle  resourceBundle  =
+      ResourceBundle.getBundle("DoosUtils-file", Locale.getDefault());
+
+  private static final  int BLOK  = 1024;
+
+  private final boolean     append;
+  private final String      bestand;
+  private final String      charset;
+  private final ClassLoader classLoader;
+  private final Compressie  compressie;
+  private final boolean     lezen;
+  private final int         threads;
+  private final String      zip;
+
+  private long          lijnen;
+  private long          nummer;
+  private TekstBestand  tekst;
+
+  private JsonLinesBestand(Builder builder) throws BestandException {
+    append      = builder.isAppend();
+    bestand     = builder.getBestand();
+    charset     = builder.getCharset();
+    classLoader = builder.getClassLoader();
+    compressie  = builder.getCompressie();
+    lezen       = builder.isReadOnly();
+    threads     = builder.getThreads();
+    zip         = builder.getZip();
+
+    open();
+  }
+
+  public static final class Builder {
+    private boolean     append      = false;
+    private String      bestand     = "";
+    private String      charset     = "UTF-8";
+    private ClassLoader classLoader = null;
+    private Compressie  compressie  = Compressie.AUTOMATISCH;
+    private boolean     lezen       = true;
+    private int         threads     = 1;
+    private String      zip         = null;
+
+    public JsonLinesBestand build() throws BestandException {
+      return new JsonLinesBestand(this);
+    }
+
+    public String getBestand() {
+      return bestand;
+    }
+
+    public String getCharset() {
+      return charset;
+    }
+
+    public ClassLoader getClassLoader() {
+      return classLoader;
+    }
+
+    public Compressie getCompressie() {
+      return compressie;
+    }
+
+    public int getThreads() {
+      return threads;
+    }
+
+    public String getZip() {
+      return zip;
+    }
+
+    public boolean isAppend() {
+      return append;
+    }
+
+    public boolean isReadOnly() {
+      return lezen;
+    }
+
+    public Builder setAppend(boolean append) {
+      this.append       = append;
+      return this;
+    }
+
+    public Builder setBestand(String bestand) {
+      this.bestand      = bestand;
+      return this;
+    }
+
+    public Builder setCharset(String charset) {
+      this.charset      = charset;
+      return this;
+    }
+
+    public Builder setClassLoader(ClassLoader classLoader) {
+      this.classLoader  = classLoader;
+      return this;
+    }
+
+    /**
+     * De compressie van het bestand. Met AUTOMATISCH (standaard) wordt GZIP
+     * bij het lezen herkend en wordt een nieuw .gz bestand met GZIP
+     * geschreven.
+     */
+    public Builder setCompressie(Compressie compressie) {
+      this.compressie   = compressie;
+      return this;
+    }
+
+    public Builder setLezen(boolean lezen) {
+      this.lezen        = lezen;
+      return this;
+    }
+
+    /**
+     * Het aantal threads om GZIP in blokken te comprimeren bij het schrijven.
+     * Met meer dan 1 thread schrijft flush() het laatste, onvolledige blok van
+     * 1 MB niet weg. Dat gebeurt pas bij close().
+     */
+    public Builder setThreads(int threads) {
+      this.threads      = threads;
+      return this;
+    }
+
+    /**
+     * Leest het bestand als entry uit deze zip zonder het uit te pakken.
+     */
+    public Builder setZip(String zip) {
+      this.zip          = zip;
+      return this;
+    }
+  }
+
+  @Override
+  public void close() throws BestandException {
+    if (null == tekst) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_BEST_DICHT),
+                                                      getBestand()));
+    }
+
+    tekst.close();
+    tekst = null;
+  }
+
+  public String getBestand() {
+    if (null != zip) {
+      return zip + "!/" + bestand;
+    }
+    if (null != classLoader) {
+      return "CLASSPATH/" + bestand;
+    }
+
+    return bestand;
+  }
+
+  public String getCharset() {
+    return charset;
+  }
+
+  public Compressie getCompressie() {
+    return compressie;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public boolean hasNext() {
+    return tekst.hasNext();
+  }
+
+  public boolean isAppend() {
+    return append;
+  }
+
+  public boolean isEof() {
+    return !hasNext();
+  }
+
+  private static boolean isLeeg(String lijn) {
+    return lijn.trim().isEmpty();
+  }
+
+  public boolean isReadOnly() {
+    return lezen;
+  }
+
+  private static List<Object> lees(List<String> blok, long[] nummers)
+      throws BestandException {
+    var resultaat = new ArrayList<>(blok.size());
+    for (var i = 0; i < blok.size(); i++) {
+      resultaat.add(lees(blok.get(i), nummers[i]));
+    }
+
+    return resultaat;
+  }
+
+  private static Object lees(String lijn, long nummer)
+      throws BestandException {
+    try {
+      return JsonLezer.lees(lijn);
+    } catch (BestandException e) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_JSON_LIJN),
+                                   nummer, e.getMessage()));
+    }
+  }
+
+  private static void lever(Future<List<Object>> taak,
+                            Consumer<Object> verwerker)
+      throws BestandException {
+    try {
+      taak.get().forEach(verwerker);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BestandException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof BestandException) {
+        throw (BestandException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new BestandException(e.getCause());
+    }
+  }
+
+  /**
+   * Geeft de waarde van de volgende lijn die niet leeg is.
+   *
+   * @return een JSONObject, JSONArray, String, Long, Double, Boolean of null.
+   * @throws BestandException
+   */
+  public Object next() throws BestandException {
+    var lijn  = volgendeLijn();
+
+    return lees(lijn, nummer);
+  }
+
+  public final void open() throws BestandException {
+    if (null != tekst) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_BEST_OPEN),
+                                                      getBestand()));
+    }
+
+    lijnen  = 0;
+    tekst   = new TekstBestand.Builder().setAppend(append)
+                                        .setBestand(bestand)
+                                        .setCharset(charset)
+                                        .setClassLoader(classLoader)
+                                        .setCompressie(compressie)
+                                        .setLezen(lezen)
+                                        .setThreads(threads)
+                                        .setZip(zip)
+                                        .build();
+    if (lezen) {
+      slaLegeLijnenOver();
+    }
+  }
+
+  private void slaLegeLijnenOver() throws BestandException {
+    while (tekst.hasNext() && isLeeg(tekst.kijkVooruit())) {
+      tekst.next();
+      lijnen++;
+    }
+  }
+
+  /**
+   * Geeft de waarden van de overige lijnen als een Stream. Een fout wordt als
+   * UncheckedBestandException gegooid. Een parallelle Stream op een bestand
+   * op het filesystem verdeelt het bestand zoals TekstBestand.stream().
+   *
+   * @return de waarden.
+   */
+  public Stream<Object> stream() {
+    return tekst.stream().filter(lijn -> !isLeeg(lijn))
+                .map(lijn -> {
+                  try {
+                    return JsonLezer.lees(lijn);
+                  } catch (BestandException e) {
+                    throw new UncheckedBestandException(e);
+                  }
+                });
+  }
+
+  /**
+   * Geeft de waarden van alle overige lijnen aan de verwerker. Met meer dan 1
+   * thread worden de lijnen in blokken door een pool van threads omgezet. De
+   * verwerker wordt altijd in de volgorde van het bestand en in de thread van
+   * de aanroeper opgeroepen.
+   *
+   * @param verwerker
+   * @throws BestandException
+   */
+  public void verwerk(Consumer<Object> verwerker) throws BestandException {
+    if (threads < 2) {
+      while (hasNext()) {
+        verwerker.accept(next());
+      }
+      return;
+    }
+
+    var pool  = Executors.newFixedThreadPool(threads);
+    var taken = new ArrayDeque<Future<List<Object>>>();
+    try {
+      while (hasNext()) {
+        var blok    = new ArrayList<String>(BLOK);
+        var nummers = new long[BLOK];
+        while (blok.size() < BLOK && hasNext()) {
+          blok.add(volgendeLijn());
+          nummers[blok.size() - 1]  = nummer;
+        }
+        taken.add(pool.submit(() -> lees(blok, nummers)));
+        while (taken.size() >= threads * 2) {
+          lever(taken.poll(), verwerker);
+        }
+      }
+
+      while (!taken.isEmpty()) {
+        lever(taken.poll(), verwerker);
+      }
+    } finally {
+      taken.forEach(taak -> taak.cancel(true));
+      pool.shutdownNow();
+    }
+  }
+
+  private String volgendeLijn() throws BestandException {
+    if (!lezen) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_BEST_WRITEONLY),
+                                                      getBestand()));
+    }
+
+    var lijn  = tekst.next();
+    lijnen++;
+    nummer    = lijnen;
+    slaLegeLijnenOver();
+
+    return lijn;
+  }
+
+  public void write(Object waarde) throws BestandException {
+    tekst.write(JSONValue.toJSONString(waarde));
+  }
+}
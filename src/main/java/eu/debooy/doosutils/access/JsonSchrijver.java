@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import org.json.simple.JSONValue;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Schrijft JSON rechtstreeks naar een Writer. Objecten en tabellen kunnen
+ * stuk per stuk geschreven worden zodat enkel het element dat geschreven
+ * wordt in het geheugen moet zijn. De komma's tussen de elementen worden
+ * door de schrijver gezet.
+ *
+ * Met een inspringing wordt elk element op een nieuwe lijn gezet die per
+ * niveau met inspringing spaties inspringt. Lege objecten en tabellen blijven
+ * op 1 lijn.
+ */
+final class JsonSchrijver {
+  private static final  String  NIEUWE_LIJN = System.lineSeparator();
+
+  private final Deque<Boolean>  eersten = new ArrayDeque<>();
+  private final int             inspringing;
+  private final boolean         mooi;
+  private final Writer          uitvoer;
+
+  private String[]  inspringingen = new String[] {""};
+  private boolean   naSleutel     = false;
+
+  JsonSchrijver(Writer uitvoer) {
+    this.inspringing  = 0;
+    this.mooi         = false;
+    this.uitvoer      = uitvoer;
+  }
+
+  JsonSchrijver(Writer uitvoer, int inspringing) {
+    this.inspringing  = inspringing;
+    this.mooi         = true;
+    this.uitvoer      = uitvoer;
+  }
+
+  /**
+   * Gaat verder in een tabel of object waarvan het begin al geschreven is.
+   *
+   * @param leeg true als er nog geen elementen geschreven zijn.
+   */
+  void hervat(boolean leeg) {
+    eersten.push(leeg);
+  }
+
+  private void einde(char teken) throws IOException {
+    if (!eersten.pop()) {
+      nieuweLijn();
+    }
+    uitvoer.write(teken);
+  }
+
+  void eindeObject() throws IOException {
+    einde('}');
+  }
+
+  void eindeTabel() throws IOException {
+    einde(']');
+  }
+
+  /**
+   * Begint een nieuwe lijn met de inspringing van het huidige niveau. De
+   * inspringingen worden bewaard zodat ze maar 1 keer gemaakt worden.
+   */
+  private void nieuweLijn() throws IOException {
+    if (!mooi) {
+      return;
+    }
+
+    var niveau  = eersten.size();
+    if (niveau >= inspringingen.length) {
+      var nieuw = Arrays.copyOf(inspringingen, niveau * 2);
+      for (var i = inspringingen.length; i < nieuw.length; i++) {
+        var spaties = new char[i * inspringing];
+        Arrays.fill(spaties, ' ');
+        nieuw[i]  = new String(spaties);
+      }
+      inspringingen = nieuw;
+    }
+
+    uitvoer.write(NIEUWE_LIJN);
+    uitvoer.write(inspringingen[niveau]);
+  }
+
+  /**
+   * Sluit de laatste lijn af.
+   */
+  void sluit() throws IOException {
+    if (mooi) {
+      uitvoer.write(NIEUWE_LIJN);
+    }
+  }
+
+  private void scheiding() throws IOException {
+    if (naSleutel) {
+      naSleutel = false;
+      return;
+    }
+    if (!eersten.isEmpty()) {
+      if (!eersten.pop()) {
+        uitvoer.write(',');
+      }
+      eersten.push(Boolean.FALSE);
+      nieuweLijn();
+    }
+  }
+
+  void sleutel(String sleutel) throws IOException {
+    scheiding();
+    uitvoer.write('"');
+    uitvoer.write(JSONValue.escape(sleutel));
+    uitvoer.write(mooi ? "\": " : "\":");
+    naSleutel = true;
+  }
+
+  void startObject() throws IOException {
+    scheiding();
+    uitvoer.write('{');
+    eersten.push(Boolean.TRUE);
+  }
+
+  void startTabel() throws IOException {
+    scheiding();
+    uitvoer.write('[');
+    eersten.push(Boolean.TRUE);
+  }
+
+  void waarde(Object waarde) throws IOException {
+    if (waarde instanceof Map) {
+      startObject();
+      for (var element : ((Map<?, ?>) waarde).entrySet()) {
+        sleutel(String.valueOf(element.getKey()));
+        waarde(element.getValue());
+      }
+      eindeObject();
+      return;
+    }
+
+    if (waarde instanceof List) {
+      startTabel();
+      for (var element : (List<?>) waarde) {
+        waarde(element);
+      }
+      eindeTabel();
+      return;
+    }
+
+    scheiding();
+    JSONValue.writeJSONString(waarde, uitvoer);
+  }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.regex.Pattern;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * De delen van een JSON document die gelezen moeten worden. Een pad bestaat
+ * uit sleutels gescheiden door een punt. Elke sleutel kan gevolgd worden door
+ * 1 of meer indexen tussen vierkante haken (bv. a.b[3].c of [0].naam). Alles
+ * onder het laatste deel van een pad wordt gelezen.
+ */
+final class JsonSelectie {
+  private static final  ResourceBundle  resourceBundle  =
+      ResourceBundle.getBundle("DoosUtils-file", Locale.getDefault());
+
+  private static final  Pattern DEEL  =
+      Pattern.compile("([^\\[\\]]*)((?:\\[\\d+\\])*)");
+
+  private final Map<Integer, JsonSelectie>  indexen   = new HashMap<>();
+  private final Map<String, JsonSelectie>   sleutels  = new HashMap<>();
+
+  private boolean alles = false;
+
+  private JsonSelectie() {}
+
+  static JsonSelectie maak(Collection<String> paden) throws BestandException {
+    var selectie  = new JsonSelectie();
+    for (var pad : paden) {
+      var huidige = selectie;
+      for (var deel : splits(pad)) {
+        huidige = huidige.voegToe(deel);
+      }
+      huidige.alles = true;
+    }
+
+    return selectie;
+  }
+
+  JsonSelectie getIndex(int index) {
+    return indexen.get(index);
+  }
+
+  JsonSelectie getSleutel(String sleutel) {
+    return sleutels.get(sleutel);
+  }
+
+  boolean isAlles() {
+    return alles;
+  }
+
+  /**
+   * Splitst een pad in zijn sleutels (String) en indexen (Integer).
+   */
+  static List<Object> splits(String pad) throws BestandException {
+    var delen = new ArrayList<Object>();
+    if (null == pad || pad.isEmpty()) {
+      throw fout(pad);
+    }
+
+    for (var deel : pad.split("\\.", -1)) {
+      var matcher = DEEL.matcher(deel);
+      if (!matcher.matches()
+          || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())
+          || (matcher.group(1).isEmpty() && !delen.isEmpty())) {
+        throw fout(pad);
+      }
+      if (!matcher.group(1).isEmpty()) {
+        delen.add(matcher.group(1));
+      }
+      var indexen = matcher.group(2);
+      if (!indexen.isEmpty()) {
+        for (var index : indexen.substring(1, indexen.length() - 1)
+                                .split("\\]\\[")) {
+          try {
+            delen.add(Integer.valueOf(index));
+          } catch (NumberFormatException e) {
+            throw fout(pad);
+          }
+        }
+      }
+    }
+
+    return delen;
+  }
+
+  private static BestandException fout(String pad) {
+    return new BestandException(MessageFormat.format(
+        resourceBundle.getString(BestandConstants.ERR_JSON_PAD), pad));
+  }
+
+  private JsonSelectie voegToe(Object deel) {
+    if (deel instanceof Integer) {
+      return indexen.computeIfAbsent((Integer) deel,
+                                     i -> new JsonSelectie());
+    }
+
+    return sleutels.computeIfAbsent((String) deel, s -> new JsonSelectie());
+  }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Schrijft GZIP zoals pigz. De gegevens worden in blokken van BLOK bytes
+ * verdeeld die elk door een thread van de pool als een apart GZIP member
+ * gecomprimeerd worden. De members worden in de juiste volgorde geschreven
+ * en vormen samen een geldig GZIP bestand dat GZIPInputStream, gzip en zcat
+ * als 1 geheel lezen. Er zijn hoogstens 2 blokken per thread tegelijk in het
+ * geheugen.
+ */
+final class ParallelGzipUitvoer extends OutputStream {
+  static final  int BLOK  = 1024 * 1024;
+
+  private final ArrayDeque<Future<byte[]>>  taken   = new ArrayDeque<>();
+  private final ExecutorService             pool;
+  private final int                         threads;
+  private final OutputStream                uitvoer;
+
+  private byte[]  blok      = new byte[BLOK];
+  private boolean gesloten  = false;
+  private int     lengte    = 0;
+  private boolean leeg      = true;
+
+  ParallelGzipUitvoer(OutputStream uitvoer, int threads) {
+    this.pool     = Executors.newFixedThreadPool(threads, taak -> {
+                      var thread  = new Thread(taak, "ParallelGzipUitvoer");
+                      thread.setDaemon(true);
+                      return thread;
+                    });
+    this.threads  = threads;
+    this.uitvoer  = uitvoer;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (gesloten) {
+      return;
+    }
+    gesloten  = true;
+
+    try {
+      if (lengte > 0 || leeg) {
+        verstuur();
+      }
+      while (!taken.isEmpty()) {
+        schrijf();
+      }
+      uitvoer.flush();
+    } finally {
+      taken.forEach(taak -> taak.cancel(true));
+      pool.shutdownNow();
+      uitvoer.close();
+    }
+  }
+
+  private static byte[] comprimeer(byte[] gegevens, int lengte)
+      throws IOException {
+    var member  = new ByteArrayOutputStream(lengte / 2 + 64);
+    try (var gzip = new GZIPOutputStream(member, 64 * 1024)) {
+      gzip.write(gegevens, 0, lengte);
+    }
+
+    return member.toByteArray();
+  }
+
+  /**
+   * Schrijft enkel de blokken die al klaar zijn. Een gedeeltelijk blok blijft
+   * staan tot het vol is of tot close(). Na flush() staat dus niet alles wat
+   * geschreven is in het bestand, net als bij een GZIPOutputStream zonder
+   * syncFlush. Een apart member per flush() zou de compressie bij veel kleine
+   * flushes kapot maken.
+   */
+  @Override
+  public void flush() throws IOException {
+    while (!taken.isEmpty() && taken.peek().isDone()) {
+      schrijf();
+    }
+    uitvoer.flush();
+  }
+
+  /**
+   * Schrijft het member van het oudste blok.
+   */
+  private void schrijf() throws IOException {
+    try {
+      uitvoer.write(taken.poll().get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  /**
+   * Geeft het huidige blok aan de pool en begint een nieuw blok.
+   */
+  private void verstuur() throws IOException {
+    var gegevens  = blok;
+    var aantal    = lengte;
+    taken.add(pool.submit(() -> comprimeer(gegevens, aantal)));
+    blok    = new byte[BLOK];
+    lengte  = 0;
+    leeg    = false;
+
+    while (taken.size() > threads * 2) {
+      schrijf();
+    }
+  }
+
+  @Override
+  public void write(int teken) throws IOException {
+    if (gesloten) {
+      throw new IOException("Stream closed");
+    }
+    if (lengte == blok.length) {
+      verstuur();
+    }
+    blok[lengte++]  = (byte) teken;
+  }
+
+  @Override
+  public void write(byte[] gegevens, int begin, int aantal)
+      throws IOException {
+    if (gesloten) {
+      throw new IOException("Stream closed");
+    }
+    Objects.checkFromIndexSize(begin, aantal, gegevens.length);
+
+    var positie = begin;
+    var einde   = begin + aantal;
+    while (positie < einde) {
+      if (lengte == blok.length) {
+        verstuur();
+      }
+      var stuk  = Math.min(einde - positie, blok.length - lengte);
+      System.arraycopy(gegevens, positie, blok, lengte, stuk);
+      lengte   += stuk;
+      positie  += stuk;
+    }
+  }
+}
@@ -19,17 +19,15 @@ package eu.debooy.doosutils.access;
 import eu.debooy.doosutils.exception.BestandException;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Paths;
 import java.text.MessageFormat;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -43,18 +41,30 @@ public class TekstBestand implements AutoCloseable {
   private final String      bestand;
   private final String      charset;
   private final ClassLoader classLoader;
+  private final Compressie  compressie;
+  private final boolean     gemapt;
   private final boolean     lezen;
+  private final int         threads;
+  private final String      zip;
 
+  private boolean         gecomprimeerd;
+  private GemapteLezer    gemapteLezer;
   private BufferedReader  invoer;
+  private FileChannel     kanaal;
   private BufferedWriter  uitvoer;
   private String          lijn;
+  private long            lijnen;
 
   private TekstBestand(Builder builder) throws BestandException {
     append      = builder.isAppend();
     bestand     = builder.getBestand();
     charset     = builder.getCharset();
     classLoader = builder.getClassLoader();
+    compressie  = builder.getCompressie();
+    gemapt      = builder.isGemapt();
     lezen       = builder.isReadOnly();
+    threads     = builder.getThreads();
+    zip         = builder.getZip();
 
     open();
   }
@@ -64,7 +74,11 @@ public class TekstBestand implements AutoCloseable {
     private String      bestand     = "";
     private String      charset     = Charset.defaultCharset().name();
     private ClassLoader classLoader = null;
+    private Compressie  compressie  = Compressie.AUTOMATISCH;
+    private boolean     gemapt      = false;
     private boolean     lezen       = true;
+    private int         threads     = 1;
+    private String      zip         = null;
 
     public TekstBestand build() throws BestandException {
       return new TekstBestand(this);
@@ -82,10 +96,26 @@ public class TekstBestand implements AutoCloseable {
       return classLoader;
     }
 
+    public Compressie getCompressie() {
+      return compressie;
+    }
+
+    public int getThreads() {
+      return threads;
+    }
+
+    public String getZip() {
+      return zip;
+    }
+
     public boolean isAppend() {
       return append;
     }
 
+    public boolean isGemapt() {
+      return gemapt;
+    }
+
     public boolean isReadOnly() {
       return lezen;
     }
@@ -110,10 +140,48 @@ public class TekstBestand implements AutoCloseable {
       return this;
     }
 
+    /**
+     * De compressie van het bestand. Met AUTOMATISCH (standaard) wordt GZIP
+     * bij het lezen herkend en wordt een nieuw .gz bestand met GZIP
+     * geschreven.
+     */
+    public Builder setCompressie(Compressie compressie) {
+      this.compressie   = compressie;
+      return this;
+    }
+
+    /**
+     * Leest een bestand op het filesystem via een MappedByteBuffer. Dit kan
+     * enkel voor UTF-8 en charsets met 1 byte per teken. Voor andere
+     * charsets en gecomprimeerde bestanden wordt het bestand gewoon gelezen.
+     */
+    public Builder setGemapt(boolean gemapt) {
+      this.gemapt       = gemapt;
+      return this;
+    }
+
     public Builder setLezen(boolean lezen) {
       this.lezen        = lezen;
       return this;
     }
+
+    /**
+     * Het aantal threads om GZIP in blokken te comprimeren bij het schrijven.
+     * Met meer dan 1 thread schrijft flush() het laatste, onvolledige blok van
+     * 1 MB niet weg. Dat gebeurt pas bij close().
+     */
+    public Builder setThreads(int threads) {
+      this.threads      = threads;
+      return this;
+    }
+
+    /**
+     * Leest het bestand als entry uit deze zip zonder het uit te pakken.
+     */
+    public Builder setZip(String zip) {
+      this.zip          = zip;
+      return this;
+    }
   }
 
   public void add(TekstBestand bron) throws BestandException {
@@ -125,6 +193,7 @@ public class TekstBestand implements AutoCloseable {
   @Override
   public void close() throws BestandException {
     if (null == invoer
+        && null == gemapteLezer
         && null == uitvoer) {
       throw new BestandException(MessageFormat.format(
           resourceBundle.getString(BestandConstants.ERR_BEST_DICHT),
@@ -135,15 +204,25 @@ public class TekstBestand implements AutoCloseable {
       if (null != invoer) {
         invoer.close();
       }
+      if (null != gemapteLezer) {
+        gemapteLezer.close();
+      }
       if (null != uitvoer) {
         uitvoer.close();
       }
+      if (null != kanaal) {
+        kanaal.close();
+        kanaal  = null;
+      }
     } catch (IOException e) {
       throw new BestandException(e);
     }
   }
 
   public String getBestand() {
+    if (null != zip) {
+      return zip + "!/" + bestand;
+    }
     if (null != classLoader) {
       return "CLASSPATH/" + bestand;
     }
@@ -155,6 +234,41 @@ public class TekstBestand implements AutoCloseable {
     return charset;
   }
 
+  public Compressie getCompressie() {
+    return compressie;
+  }
+
+  /**
+   * Geeft een FileChannel voor het bestand als de overige lijnen als bytes
+   * gesplitst kunnen worden. Deze lijnen worden dan als gelezen beschouwd. Het
+   * FileChannel wordt door close() gesloten.
+   *
+   * @return null als het bestand niet gesplitst kan worden.
+   */
+  FileChannel getKanaal() throws BestandException {
+    if (null != classLoader
+        || null != zip
+        || gecomprimeerd
+        || lijnen > 0
+        || !hasNext()
+        || !Bestand.isSplitsbaar(Charset.forName(charset))) {
+      return null;
+    }
+
+    try {
+      kanaal  = BestandFabriek.openKanaal(Paths.get(bestand));
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+    lijn    = null;
+
+    return kanaal;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
   public boolean hasNext() {
     return (null != lijn);
   }
@@ -167,10 +281,33 @@ public class TekstBestand implements AutoCloseable {
     return !hasNext();
   }
 
+  public boolean isGemapt() {
+    return gemapt;
+  }
+
   public boolean isReadOnly() {
     return lezen;
   }
 
+  /**
+   * Geeft de lijn die next() zal geven zonder ze te lezen.
+   */
+  String kijkVooruit() {
+    return lijn;
+  }
+
+  private void leesLijn() throws BestandException {
+    try {
+      if (null == gemapteLezer) {
+        lijn  = invoer.readLine();
+      } else {
+        lijn  = gemapteLezer.leesLijn();
+      }
+    } catch (IOException e) {
+      throw new BestandException(e);
+    }
+  }
+
   public String next() throws BestandException {
     if (!lezen) {
       throw new BestandException(MessageFormat.format(
@@ -184,18 +321,16 @@ public class TekstBestand implements AutoCloseable {
     }
 
     var regel = lijn;
-
-    try {
-      lijn  = invoer.readLine();
-    } catch (IOException e) {
-      throw new BestandException(e);
-    }
+    lijnen++;
+    leesLijn();
 
     return regel;
   }
 
   public final void open() throws BestandException {
+    lijnen  = 0;
     if (null != invoer
+        || null != gemapteLezer
         || null != uitvoer) {
       throw new BestandException(MessageFormat.format(
           resourceBundle.getString(BestandConstants.ERR_BEST_OPEN),
@@ -203,21 +338,19 @@ public class TekstBestand implements AutoCloseable {
     }
 
     try {
-      if (null == classLoader) {
+      if (null != zip) {
+        openZip();
+      } else if (null == classLoader) {
         openFileSystem();
       } else {
         openClassLoader();
       }
-    } catch (UnsupportedEncodingException | FileNotFoundException e) {
+    } catch (IOException e) {
       throw new BestandException(e);
     }
 
     if (lezen) {
-      try {
-        lijn  = invoer.readLine();
-      } catch (IOException e) {
-        throw new BestandException(e);
-      }
+      leesLijn();
 
       if (null == lijn) {
         throw new BestandException(MessageFormat.format(
@@ -227,31 +360,58 @@ public class TekstBestand implements AutoCloseable {
     }
   }
 
-  private void openClassLoader()
-      throws BestandException, UnsupportedEncodingException {
+  private void openClassLoader() throws BestandException, IOException {
     if (lezen) {
-      invoer  = new BufferedReader(
-                  new InputStreamReader(
-                      classLoader.getResourceAsStream(bestand), charset));
+      invoer  = BestandFabriek.openLezer(
+                  BestandFabriek.openInvoer(
+                      classLoader.getResourceAsStream(bestand), compressie),
+                  charset);
     } else {
       throw new BestandException(
           resourceBundle.getString(BestandConstants.ERR_CLP_READONLY));
     }
   }
 
-  private void openFileSystem()
-      throws UnsupportedEncodingException, FileNotFoundException {
+  private void openFileSystem() throws IOException {
+    var pad   = Paths.get(bestand);
+    var soort = lezen ? BestandFabriek.bepaalCompressie(pad, compressie)
+                      : BestandFabriek.bepaalCompressie(pad, compressie,
+                                                        append);
+    gecomprimeerd = Compressie.GEEN != soort;
+    if (lezen && gemapt && !gecomprimeerd
+        && Bestand.isSplitsbaar(Charset.forName(charset))) {
+      gemapteLezer  = new GemapteLezer(pad, Charset.forName(charset));
+    } else if (lezen) {
+      invoer  = BestandFabriek.openLezer(pad, charset, soort);
+    } else {
+      uitvoer = BestandFabriek.openSchrijver(pad, charset, append, soort,
+                                             threads);
+    }
+  }
+
+  private void openZip() throws BestandException, IOException {
     if (lezen) {
-      invoer  = new BufferedReader(
-                  new InputStreamReader(
-                    new FileInputStream (bestand), charset));
+      invoer  = BestandFabriek.openLezer(
+                  BestandFabriek.openInvoer(
+                      BestandFabriek.openZipInvoer(Paths.get(zip), bestand),
+                      compressie),
+                  charset);
     } else {
-      uitvoer = new BufferedWriter(
-                  new OutputStreamWriter(
-                    new FileOutputStream(bestand, append), charset));
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_ZIP_READONLY), zip));
     }
   }
 
+  /**
+   * Geeft de overige lijnen als een Stream. Een fout bij het lezen wordt als
+   * UncheckedBestandException gegooid.
+   *
+   * @return de lijnen.
+   */
+  public Stream<String> stream() {
+    return StreamSupport.stream(new TekstSpliterator(this), false);
+  }
+
   public void write(String lijn) throws BestandException {
     if (lezen) {
       throw new BestandException(MessageFormat.format(
@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import eu.debooy.doosutils.exception.UncheckedBestandException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Spliterator voor de lijnen van een TekstBestand. Zolang er niet gesplitst
+ * wordt, worden de lijnen met next() gelezen. Bij de eerste trySplit wordt
+ * een bestand op het filesystem als een reeks bytes behandeld die in het
+ * midden, na het volgende regeleinde, gesplitst wordt. Anders wordt er
+ * gesplitst in reeksen van gelezen lijnen.
+ */
+final class TekstSpliterator extends Spliterators.AbstractSpliterator<String> {
+  private static final  int KENMERKEN = Spliterator.ORDERED
+                                        | Spliterator.NONNULL;
+  private static final  int MINIMUM   = 8192;
+
+  private TekstBestand    bron;
+  private long            begin;
+  private Charset         charset;
+  private long            einde;
+  private FileChannel     kanaal;
+  private BufferedReader  lezer;
+
+  TekstSpliterator(TekstBestand bron) {
+    super(Long.MAX_VALUE, KENMERKEN);
+    this.bron = bron;
+  }
+
+  private TekstSpliterator(FileChannel kanaal, Charset charset,
+                           long begin, long einde) {
+    super(Long.MAX_VALUE, KENMERKEN);
+    this.begin    = begin;
+    this.charset  = charset;
+    this.einde    = einde;
+    this.kanaal   = kanaal;
+  }
+
+  /**
+   * Leest de bytes van begin tot einde met een eigen positie zodat meerdere
+   * threads hetzelfde FileChannel kunnen gebruiken.
+   */
+  private static final class Bereik extends InputStream {
+    private final long        einde;
+    private final FileChannel kanaal;
+
+    private long  positie;
+
+    private Bereik(FileChannel kanaal, long begin, long einde) {
+      this.einde    = einde;
+      this.kanaal   = kanaal;
+      this.positie  = begin;
+    }
+
+    @Override
+    public int read() throws IOException {
+      var teken = new byte[1];
+      if (read(teken, 0, 1) < 0) {
+        return -1;
+      }
+
+      return teken[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int lengte)
+        throws IOException {
+      if (positie >= einde) {
+        return -1;
+      }
+
+      var gelezen = kanaal.read(
+          ByteBuffer.wrap(buffer, offset,
+                          (int) Math.min(lengte, einde - positie)),
+          positie);
+      if (gelezen > 0) {
+        positie += gelezen;
+      }
+
+      return gelezen;
+    }
+  }
+
+  @Override
+  public long estimateSize() {
+    if (null == bron) {
+      return einde - begin;
+    }
+
+    return super.estimateSize();
+  }
+
+  /**
+   * Zoekt het begin van de eerste lijn vanaf positie.
+   */
+  private long lijnBegin(long positie) throws IOException {
+    var buffer  = ByteBuffer.allocate(MINIMUM);
+    while (positie < einde) {
+      buffer.clear();
+      var gelezen = kanaal.read(buffer, positie);
+      if (gelezen <= 0) {
+        break;
+      }
+      for (var i = 0; i < gelezen; i++) {
+        var teken = buffer.get(i);
+        if (teken == '\n') {
+          return positie + i + 1;
+        }
+        if (teken == '\r') {
+          var volgende  = ByteBuffer.allocate(1);
+          if (kanaal.read(volgende, positie + i + 1) > 0
+              && volgende.get(0) == '\n') {
+            return positie + i + 2;
+          }
+          return positie + i + 1;
+        }
+      }
+      positie += gelezen;
+    }
+
+    return einde;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super String> actie) {
+    String  lijn;
+    try {
+      if (null != bron) {
+        if (!bron.hasNext()) {
+          return false;
+        }
+        lijn  = bron.next();
+      } else {
+        if (null == lezer) {
+          lezer = new BufferedReader(
+                    new InputStreamReader(
+                      new Bereik(kanaal, begin, einde), charset));
+          begin = einde;
+        }
+        lijn  = lezer.readLine();
+        if (null == lijn) {
+          return false;
+        }
+      }
+    } catch (BestandException e) {
+      throw new UncheckedBestandException(e);
+    } catch (IOException e) {
+      throw new UncheckedBestandException(new BestandException(e));
+    }
+
+    actie.accept(lijn);
+    return true;
+  }
+
+  @Override
+  public Spliterator<String> trySplit() {
+    try {
+      if (null != bron) {
+        kanaal  = bron.getKanaal();
+        if (null == kanaal) {
+          return super.trySplit();
+        }
+        charset = Charset.forName(bron.getCharset());
+        begin   = 0;
+        einde   = kanaal.size();
+        bron    = null;
+      }
+
+      if (null != lezer
+          || einde - begin < 2 * MINIMUM) {
+        return null;
+      }
+
+      var midden  = lijnBegin((begin + einde) >>> 1);
+      if (midden >= einde) {
+        return null;
+      }
+      var prefix  = new TekstSpliterator(kanaal, charset, begin, midden);
+      begin = midden;
+
+      return prefix;
+    } catch (BestandException e) {
+      throw new UncheckedBestandException(e);
+    } catch (IOException e) {
+      throw new UncheckedBestandException(new BestandException(e));
+    }
+  }
+}
@@ -20,21 +20,39 @@
 package eu.debooy.doosutils.access;
 
 import eu.debooy.doosutils.exception.BestandException;
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
-import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 
 /**
@@ -44,8 +62,13 @@ public class ZipBestand {
   private static final  ResourceBundle  resourceBundle  =
       ResourceBundle.getBundle("DoosUtils-file", Locale.getDefault());
 
+  private static final  int BUFFER  = 1024 * 1024;
+
   private final ClassLoader classLoader;
   private final boolean     lezen;
+  private final int         methode;
+  private final int         niveau;
+  private final int         threads;
   private final String      zip;
 
   private ZipBestand(ZipBestand.Builder builder) {
@@ -55,12 +78,18 @@ public class ZipBestand {
     } else {
       lezen     = true;
     }
+    methode     = builder.getMethode();
+    niveau      = builder.getNiveau();
+    threads     = builder.getThreads();
     zip         = builder.getZip();
   }
 
   public static final class Builder {
     private ClassLoader classLoader = null;
     private boolean     lezen       = true;
+    private int         methode     = ZipEntry.DEFLATED;
+    private int         niveau      = Deflater.DEFAULT_COMPRESSION;
+    private int         threads     = 1;
     private String      zip         = "";
 
     public ZipBestand build() {
@@ -71,6 +100,18 @@ public class ZipBestand {
       return classLoader;
     }
 
+    public int getMethode() {
+      return methode;
+    }
+
+    public int getNiveau() {
+      return niveau;
+    }
+
+    public int getThreads() {
+      return threads;
+    }
+
     public String getZip() {
       return zip;
     }
@@ -89,12 +130,93 @@ public class ZipBestand {
       return this;
     }
 
+    /**
+     * ZipEntry.DEFLATED (standaard) of ZipEntry.STORED voor bestanden die al
+     * gecomprimeerd zijn.
+     */
+    public Builder setMethode(int methode) {
+      this.methode      = methode;
+      return this;
+    }
+
+    /**
+     * Het compressieniveau van 0 tot 9 of Deflater.DEFAULT_COMPRESSION. Met
+     * een ander niveau dan Deflater.DEFAULT_COMPRESSION wordt de hele zip
+     * opnieuw geschreven en worden de bestaande entries opnieuw
+     * gecomprimeerd.
+     */
+    public Builder setNiveau(int niveau) {
+      this.niveau       = niveau;
+      return this;
+    }
+
+    /**
+     * Het aantal threads waarmee uitpakken() de bestanden uitpakt.
+     */
+    public Builder setThreads(int threads) {
+      this.threads      = threads;
+      return this;
+    }
+
     public Builder setZip(String zip) {
       this.zip          = zip;
       return this;
     }
   }
 
+  /**
+   * Het resultaat van uitpakken(String, Predicate).
+   */
+  public static final class Resultaat {
+    private final int       aantal;
+    private final long      bytes;
+    private final Duration  duur;
+
+    private Resultaat(int aantal, long bytes, Duration duur) {
+      this.aantal = aantal;
+      this.bytes  = bytes;
+      this.duur   = duur;
+    }
+
+    /**
+     * @return het aantal uitgepakte bestanden en directories.
+     */
+    public int getAantal() {
+      return aantal;
+    }
+
+    /**
+     * @return het aantal geschreven bytes.
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    public Duration getDuur() {
+      return duur;
+    }
+  }
+
+  private void controleerSchrijven() throws BestandException {
+    if (isReadOnly()) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_BEST_READONLY),
+                                   zip));
+    }
+  }
+
+  public int getMethode() {
+    return methode;
+  }
+
+  public int getNiveau() {
+    return niveau;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
   public String getZip() {
     return zip;
   }
@@ -103,56 +225,421 @@ public class ZipBestand {
     return lezen;
   }
 
+  /**
+   * Schrijft de zip opnieuw met de nieuwe entries in een tijdelijk bestand
+   * en vervangt daarna de zip.
+   */
+  private void herschrijf(Path zipPad, Map<String, Path> nieuw)
+      throws BestandException {
+    Path  tijdelijk = null;
+    try {
+      tijdelijk = Files.createTempFile(zipPad.getParent(),
+                                       zipPad.getFileName().toString(),
+                                       ".tmp");
+      try (var uitvoer =
+              new ZipOutputStream(
+                  new BufferedOutputStream(
+                      BestandFabriek.openUitvoer(tijdelijk, false),
+                      BUFFER))) {
+        uitvoer.setMethod(methode);
+        uitvoer.setLevel(niveau);
+        var buffer  = new byte[BUFFER];
+        if (Files.isRegularFile(zipPad) && Files.size(zipPad) > 0) {
+          kopieer(zipPad, nieuw.keySet(), uitvoer, buffer);
+        }
+        for (var element : nieuw.entrySet()) {
+          voegToe(uitvoer, element.getKey(), element.getValue(), buffer);
+        }
+      }
+      Files.move(tijdelijk, zipPad, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      if (null != tijdelijk) {
+        try {
+          Files.deleteIfExists(tijdelijk);
+        } catch (IOException ex) {
+          e.addSuppressed(ex);
+        }
+      }
+      throw new BestandException(e);
+    }
+  }
+
   public void inpakken(String bestand) throws BestandException {
-    var                 bron  = Paths.get(bestand);
-    Map<String, String> env   = new HashMap<>();
+    inpakken(Collections.singletonList(bestand));
+  }
 
-    if (isReadOnly()) {
-            throw new BestandException(MessageFormat.format(
-          resourceBundle.getString(BestandConstants.ERR_BEST_READONLY),
-                                                      zip));
+  /**
+   * Voegt de bestanden toe aan de zip. De zip wordt 1 keer geschreven, welk
+   * het aantal bestanden ook is. Een entry met dezelfde naam wordt vervangen.
+   *
+   * @param bestanden
+   * @throws BestandException
+   */
+  public void inpakken(Collection<String> bestanden)
+      throws BestandException {
+    controleerSchrijven();
+
+    var nieuw = new LinkedHashMap<String, Path>();
+    for (var bestand : bestanden) {
+      var bron  = Paths.get(bestand);
+      if (!Files.isRegularFile(bron)) {
+        throw new BestandException(MessageFormat.format(
+            resourceBundle.getString(BestandConstants.ERR_BEST_FOUT),
+                                     bestand));
+      }
+      nieuw.put(bron.getFileName().toString(), bron);
+    }
+
+    schrijf(nieuw);
+  }
+
+  /**
+   * Voegt de map met alle bestanden en mappen eronder toe aan de zip. De
+   * namen in de zip beginnen met de naam van de map.
+   *
+   * @param map
+   * @throws BestandException
+   */
+  public void inpakkenMap(String map) throws BestandException {
+    controleerSchrijven();
+
+    var bron  = Paths.get(map).toAbsolutePath().normalize();
+    if (!Files.isDirectory(bron)) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_MAP_FOUT), map));
     }
 
-    if (!Files.isRegularFile(bron)) {
-            throw new BestandException(MessageFormat.format(
-          resourceBundle.getString(BestandConstants.ERR_BEST_FOUT),
-                                                      bestand));
+    var basis = null == bron.getParent() ? bron : bron.getParent();
+    var nieuw = new LinkedHashMap<String, Path>();
+    try (var paden = Files.walk(bron)) {
+      for (var pad : (Iterable<Path>) paden.sorted()::iterator) {
+        if (!pad.equals(basis)) {
+          nieuw.put(naam(basis, pad), pad);
+        }
+      }
+    } catch (IOException e) {
+      throw new BestandException(e);
     }
 
-    env.put("create", "true");
-    var                 uri   = URI.create("jar:file:" + zip);
+    schrijf(nieuw);
+  }
+
+  private static long kopieer(InputStream invoer, OutputStream uitvoer,
+                              byte[] buffer)
+      throws IOException {
+    var bytes   = 0L;
+    int gelezen;
+    while ((gelezen = invoer.read(buffer)) >= 0) {
+      uitvoer.write(buffer, 0, gelezen);
+      bytes  += gelezen;
+    }
+
+    return bytes;
+  }
+
+  /**
+   * Kopieert de entries van de bestaande zip die niet vervangen worden. Elke
+   * entry houdt zijn methode, extra velden, commentaar en tijden.
+   * ZipOutputStream kan geen gecomprimeerde gegevens overnemen zodat elke
+   * DEFLATED entry opnieuw gecomprimeerd wordt.
+   */
+  private static void kopieer(Path zipPad, Set<String> vervangen,
+                              ZipOutputStream uitvoer, byte[] buffer)
+      throws IOException {
+    try (var oud = new ZipFile(zipPad.toFile())) {
+      for (var entry : Collections.list(oud.entries())) {
+        if (vervangen.contains(entry.getName())) {
+          continue;
+        }
+
+        var kopie = new ZipEntry(entry);
+        if (entry.getMethod() != ZipEntry.STORED) {
+          kopie.setCompressedSize(-1);
+        }
+        uitvoer.putNextEntry(kopie);
+        try (var invoer = oud.getInputStream(entry)) {
+          kopieer(invoer, uitvoer, buffer);
+        }
+        uitvoer.closeEntry();
+      }
+    }
+  }
+
+  private static void maakDirectory(Path directory) throws BestandException {
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_MKDIR_FAILED),
+                                   directory));
+    }
+  }
+
+  /**
+   * Geeft de naam in de zip met / als scheidingsteken.
+   */
+  private static String naam(Path basis, Path pad) {
+    var naam  = new StringJoiner("/");
+    for (var deel : basis.relativize(pad)) {
+      naam.add(deel.toString());
+    }
+
+    return Files.isDirectory(pad) ? naam + "/" : naam.toString();
+  }
+
+  private static long pakUit(ZipFile bron, ZipEntry entry, Path bestand,
+                             byte[] buffer)
+      throws BestandException, IOException {
+    long  bytes;
+    maakDirectory(bestand.getParent());
+    try (var invoer  = bron.getInputStream(entry);
+         var uitvoer = BestandFabriek.openUitvoer(bestand, false)) {
+      bytes = kopieer(invoer, uitvoer, buffer);
+    }
+    zetTijd(entry, bestand);
+
+    return bytes;
+  }
+
+  /**
+   * Pakt de bestanden uit tot er geen meer zijn. Elke thread die dit doet
+   * neemt het volgende bestand uit de lijst.
+   */
+  private static long pakUit(ZipFile bron, Path basis,
+                             List<ZipEntry> bestanden,
+                             AtomicInteger volgende)
+      throws BestandException, IOException {
+    var buffer  = new byte[BUFFER];
+    var bytes   = 0L;
+    int index;
+    while ((index = volgende.getAndIncrement()) < bestanden.size()) {
+      var entry = bestanden.get(index);
+      bytes    += pakUit(bron, entry, zoekDoel(basis, entry), buffer);
+    }
 
-    try (FileSystem zipfs = FileSystems.newFileSystem(uri, env)) {
-      var zipPath = zipfs.getPath(bron.getFileName().toString());
-      Files.copy(bron, zipPath, StandardCopyOption.REPLACE_EXISTING);
+    return bytes;
+  }
+
+  /**
+   * Pakt de bestanden met meerdere threads uit. Na een fout worden er geen
+   * nieuwe bestanden meer begonnen. Er wordt gewacht tot alle threads klaar
+   * zijn zodat de zip pas daarna gesloten wordt.
+   */
+  private long pakUitParallel(ZipFile bron, Path basis,
+                              List<ZipEntry> bestanden)
+      throws BestandException {
+    var aantal    = Math.min(threads, bestanden.size());
+    var pool      = Executors.newFixedThreadPool(aantal);
+    var taken     = new ArrayList<Future<Long>>(aantal);
+    var volgende  = new AtomicInteger();
+    try {
+      for (var i = 0; i < aantal; i++) {
+        taken.add(pool.submit(() -> pakUit(bron, basis, bestanden,
+                                           volgende)));
+      }
+
+      var               bytes = 0L;
+      BestandException  fout  = null;
+      for (var taak : taken) {
+        try {
+          bytes  += wacht(taak);
+        } catch (BestandException e) {
+          volgende.set(bestanden.size());
+          if (null == fout) {
+            fout  = e;
+          }
+        }
+      }
+      if (null != fout) {
+        throw fout;
+      }
+
+      return bytes;
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Voegt de nieuwe entries toe in 1 sessie van het zip FileSystem. De
+   * bestaande entries worden zonder ze opnieuw te comprimeren overgenomen.
+   * Enkel voor een ander compressieniveau wordt de zip met een
+   * ZipOutputStream herschreven.
+   */
+  private void schrijf(Map<String, Path> nieuw) throws BestandException {
+    var zipPad  = Paths.get(zip).toAbsolutePath();
+    try {
+      if (niveau == Deflater.DEFAULT_COMPRESSION
+          && (!Files.exists(zipPad) || Files.size(zipPad) > 0)) {
+        werkBij(zipPad, nieuw);
+      } else {
+        herschrijf(zipPad, nieuw);
+      }
     } catch (IOException e) {
       throw new BestandException(e);
     }
   }
 
+  /**
+   * Pakt alle bestanden uit in de directory doel. De ontbrekende directories
+   * worden gemaakt en de bestanden en directories krijgen het tijdstip dat
+   * in de zip staat. Gebruik uitpakken(doel, entry -> true) om het Resultaat
+   * te krijgen.
+   *
+   * @param doel
+   * @throws BestandException
+   */
   public void uitpakken(String doel) throws BestandException {
+    uitpakken(doel, entry -> true);
+  }
+
+  /**
+   * Pakt de bestanden en directories waarvoor de filter true geeft uit in de
+   * directory doel. Met meer dan 1 thread worden de bestanden parallel
+   * uitgepakt.
+   *
+   * @param doel
+   * @param filter
+   * @return het aantal entries, bytes en de duur.
+   * @throws BestandException
+   */
+  public Resultaat uitpakken(String doel, Predicate<ZipEntry> filter)
+      throws BestandException {
+    var begin = System.nanoTime();
+    var basis = Paths.get(doel).toAbsolutePath().normalize();
     try (var bron = new ZipFile(zip)) {
-      var entries = bron.entries();
+      var bestanden   = new ArrayList<ZipEntry>();
+      var directories = new ArrayList<ZipEntry>();
+      var entries     = bron.entries();
       while (entries.hasMoreElements()) {
         var entry   = entries.nextElement();
-        var bestand = new File(doel + File.separator + entry.getName());
+        if (!filter.test(entry)) {
+          continue;
+        }
+        var bestand = zoekDoel(basis, entry);
         if (entry.isDirectory()) {
-          if (!bestand.mkdir()) {
-            throw new BestandException(MessageFormat.format(
-          resourceBundle.getString(BestandConstants.ERR_MKDIR_FAILED),
-                                                      bestand));
-          }
+          maakDirectory(bestand);
+          directories.add(entry);
         } else {
-          try (var is  = bron.getInputStream(entry);
-               var fos = new FileOutputStream(bestand)) {
-            while (is.available() > 0) {
-              fos.write(is.read());
-            }
-          }
+          bestanden.add(entry);
         }
       }
+
+      var bytes = threads > 1 && bestanden.size() > 1
+                    ? pakUitParallel(bron, basis, bestanden)
+                    : pakUit(bron, basis, bestanden, new AtomicInteger());
+      for (var entry : directories) {
+        zetTijd(entry, zoekDoel(basis, entry));
+      }
+
+      return new Resultaat(bestanden.size() + directories.size(), bytes,
+                           Duration.ofNanos(System.nanoTime() - begin));
     } catch (IOException e) {
       throw new BestandException(e);
     }
   }
+
+  private void voegToe(ZipOutputStream uitvoer, String naam, Path bron,
+                       byte[] buffer)
+      throws IOException {
+    var entry = new ZipEntry(naam);
+    entry.setLastModifiedTime(Files.getLastModifiedTime(bron));
+    if (Files.isDirectory(bron)) {
+      entry.setMethod(ZipEntry.STORED);
+      entry.setSize(0);
+      entry.setCompressedSize(0);
+      entry.setCrc(0);
+      uitvoer.putNextEntry(entry);
+      uitvoer.closeEntry();
+      return;
+    }
+
+    if (methode == ZipEntry.STORED) {
+      var crc     = new CRC32();
+      var grootte = 0L;
+      try (var invoer = BestandFabriek.openInvoer(bron)) {
+        int gelezen;
+        while ((gelezen = invoer.read(buffer)) >= 0) {
+          crc.update(buffer, 0, gelezen);
+          grootte  += gelezen;
+        }
+      }
+      entry.setSize(grootte);
+      entry.setCompressedSize(grootte);
+      entry.setCrc(crc.getValue());
+    }
+
+    uitvoer.putNextEntry(entry);
+    try (var invoer = BestandFabriek.openInvoer(bron)) {
+      kopieer(invoer, uitvoer, buffer);
+    }
+    uitvoer.closeEntry();
+  }
+
+  private static long wacht(Future<Long> taak) throws BestandException {
+    try {
+      return taak.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BestandException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof BestandException) {
+        throw (BestandException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new BestandException(e.getCause());
+    }
+  }
+
+  private void werkBij(Path zipPad, Map<String, Path> nieuw)
+      throws IOException {
+    var env = new HashMap<String, String>();
+    env.put("create", "true");
+    if (methode == ZipEntry.STORED) {
+      env.put("noCompression", "true");
+    }
+
+    try (var zipfs = FileSystems.newFileSystem(URI.create("jar:"
+                                                 + zipPad.toUri()), env)) {
+      for (var element : nieuw.entrySet()) {
+        var bron  = element.getValue();
+        var doel  = zipfs.getPath(element.getKey());
+        if (Files.isDirectory(bron)) {
+          Files.createDirectories(doel);
+        } else {
+          if (null != doel.getParent()) {
+            Files.createDirectories(doel.getParent());
+          }
+          Files.copy(bron, doel, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.setLastModifiedTime(doel, Files.getLastModifiedTime(bron));
+      }
+    }
+  }
+
+  private static void zetTijd(ZipEntry entry, Path bestand)
+      throws IOException {
+    var tijd  = entry.getLastModifiedTime();
+    if (null != tijd) {
+      Files.setLastModifiedTime(bestand, tijd);
+    }
+  }
+
+  /**
+   * Geeft de plaats van de entry in de directory doel. Een entry die buiten
+   * deze directory zou komen (bv. ../bestand) wordt geweigerd.
+   */
+  private static Path zoekDoel(Path basis, ZipEntry entry)
+      throws BestandException {
+    var bestand = basis.resolve(entry.getName()).normalize();
+    if (!bestand.startsWith(basis)) {
+      throw new BestandException(MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_ZIP_BUITEN),
+                                   entry.getName(), basis));
+    }
+
+    return bestand;
+  }
 }
@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.io.File;
+import java.nio.file.LinkOption;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+import static junit.framework.TestCase.fail;
+import org.junit.After;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import org.junit.Test;
+
+
+/**
+ * @author Marco de Booij
+ */
+public class BestandFabriekTest {
+  protected static final  String  TEMP  = System.getProperty("java.io.tmpdir");
+
+  @After
+  public void after() {
+    BestandFabriek.setBufferGrootte(BestandFabriek.STANDAARD_BUFFER);
+    BestandFabriek.setLeesOpties();
+    BestandFabriek.setSchrijfOpties();
+  }
+
+  @Test
+  public void testBufferGrootte() {
+    BestandFabriek.setBufferGrootte(65536);
+    assertEquals("BufferGrootte", 65536, BestandFabriek.getBufferGrootte());
+
+    try {
+      BestandFabriek.setBufferGrootte(0);
+      fail("BufferGrootte - 0 gelukt :-(");
+    } catch (IllegalArgumentException e) {
+      assertEquals("BufferGrootte - 0", "0", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testOpties() throws BestandException {
+    var bestand = TEMP + File.separator + "testFabriek.txt";
+
+    BestandFabriek.setBufferGrootte(16);
+    BestandFabriek.setSchrijfOpties(StandardOpenOption.DSYNC);
+    assertArrayEquals("Opties - schrijven",
+                      new OpenOption[] {StandardOpenOption.DSYNC},
+                      BestandFabriek.getSchrijfOpties());
+
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setLezen(false)
+                                                      .build()) {
+      tekstBestand.write("Een lijn die langer is dan de buffer.");
+    }
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setAppend(true)
+                                                      .setLezen(false)
+                                                      .build()) {
+      tekstBestand.write("Twee");
+    }
+
+    BestandFabriek.setLeesOpties(LinkOption.NOFOLLOW_LINKS);
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .build()) {
+      assertEquals("Opties - 1", "Een lijn die langer is dan de buffer.",
+                   tekstBestand.next());
+      assertEquals("Opties - 2", "Twee", tekstBestand.next());
+      assertFalse("Opties - EOF", tekstBestand.hasNext());
+    }
+
+    Bestand.delete(bestand);
+  }
+}
@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.CRC32C;
+import static junit.framework.TestCase.fail;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * @author Marco de Booij
+ */
+public class BestandTest {
+  protected static final  Path  BRON  =
+      Paths.get(System.getProperty("java.io.tmpdir"), "bestandBron.bin");
+  protected static final  Path  DOEL  =
+      Paths.get(System.getProperty("java.io.tmpdir"), "bestandDoel.bin");
+
+  protected static  byte[]  inhoud;
+
+  @AfterClass
+  public static void afterClass() throws IOException {
+    Files.deleteIfExists(BRON);
+    Files.deleteIfExists(DOEL);
+  }
+
+  @BeforeClass
+  public static void beforeClass() throws IOException {
+    Locale.setDefault(new Locale("nl"));
+
+    inhoud  = new byte[5 * 1024 * 1024 + 3];
+    for (var i = 0; i < inhoud.length; i++) {
+      inhoud[i] = (byte) (i * 31 + i / 7);
+    }
+    inhoud[0] = '\r';
+    inhoud[1] = '\n';
+    inhoud[inhoud.length - 1] = 'x';
+    Files.write(BRON, inhoud);
+    Files.setLastModifiedTime(BRON, FileTime.fromMillis(1262304000000L));
+  }
+
+  @Test
+  public void testCopy() throws BestandException, IOException {
+    Files.write(DOEL, new byte[8 * 1024 * 1024]);
+    Bestand.copy(BRON.toString(), DOEL.toString());
+    assertArrayEquals("Copy - inhoud", inhoud, Files.readAllBytes(DOEL));
+
+    Bestand.copy(BRON.toFile(), DOEL.toFile(), true);
+    assertArrayEquals("Copy - attributen", inhoud, Files.readAllBytes(DOEL));
+    assertEquals("Copy - tijd", Files.getLastModifiedTime(BRON),
+                 Files.getLastModifiedTime(DOEL));
+
+    Bestand.copy(BRON.toString(), BRON.toString());
+    assertArrayEquals("Copy - zelfde", inhoud, Files.readAllBytes(BRON));
+  }
+
+  @Test
+  public void testCopyOnbekend() {
+    try {
+      Bestand.copy(BRON + ".onbekend", DOEL.toString());
+      fail("Copy - onbekend gelukt :-(");
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("BEST-0001: "));
+    }
+
+    try {
+      Bestand.copy(new File(System.getProperty("java.io.tmpdir")),
+                   DOEL.toFile());
+      fail("Copy - map gelukt :-(");
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("BEST-0002: "));
+    }
+  }
+
+  private static long maakBoom(Path map) throws IOException {
+    var bytes = 0L;
+    for (var i = 0; i < 3; i++) {
+      var sub = map.resolve("map" + i + "/sub");
+      Files.createDirectories(sub);
+      Files.write(map.resolve("map" + i + "/a.txt"), new byte[i + 1]);
+      Files.write(sub.resolve("b.txt"), new byte[10]);
+      bytes  += i + 11;
+    }
+    Files.write(map.resolve("c.txt"), new byte[5]);
+
+    return bytes + 5;
+  }
+
+  @Test
+  public void testDelete() throws BestandException, IOException {
+    var map   = BRON.resolveSibling("bestandDelete");
+    var bytes = maakBoom(map);
+
+    var verwijdering  = Bestand.verwijder(map.toString());
+    assertTrue("Delete - gelukt", verwijdering.isGelukt());
+    assertEquals("Delete - bestanden", 7L, verwijdering.getBestanden());
+    assertEquals("Delete - mappen", 7L, verwijdering.getMappen());
+    assertEquals("Delete - bytes", bytes, verwijdering.getBytes());
+    assertTrue("Delete - weg", Files.notExists(map));
+
+    maakBoom(map);
+    verwijdering  = Bestand.verwijder(map.toFile(), 4);
+    assertTrue("Parallel - gelukt", verwijdering.getFouten().isEmpty());
+    assertEquals("Parallel - bestanden", 7L, verwijdering.getBestanden());
+    assertEquals("Parallel - mappen", 7L, verwijdering.getMappen());
+    assertEquals("Parallel - bytes", bytes, verwijdering.getBytes());
+    assertTrue("Parallel - weg", Files.notExists(map));
+
+    maakBoom(map);
+    Bestand.delete(map.toFile(), 2);
+    assertTrue("Delete - void", Files.notExists(map));
+
+    maakBoom(map);
+    var sub = map.resolve("map0/sub");
+    sub.toFile().setWritable(false);
+    try {
+      if (!Files.isWritable(sub)) {
+        Bestand.delete(map.toFile());
+        fail("Delete - fout gelukt :-(");
+      }
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("BEST-0013: "));
+      assertTrue("Delete - oorzaak", e.getCause() instanceof IOException);
+    } finally {
+      sub.toFile().setWritable(true);
+    }
+    assertTrue("Delete - fouten", Bestand.verwijder(map.toFile())
+                                         .isGelukt());
+
+    try {
+      Bestand.delete(map.toString());
+      fail("Delete - onbekend gelukt :-(");
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("BEST-0001: "));
+    }
+  }
+
+  @Test
+  public void testDigest()
+      throws BestandException, IOException, NoSuchAlgorithmException {
+    var sha256  = MessageDigest.getInstance(Digest.SHA256).digest(inhoud);
+    assertArrayEquals("Digest - SHA-256", sha256,
+                      Bestand.digest(BRON.toString(), Digest.SHA256));
+
+    var crc32c  = new CRC32C();
+    crc32c.update(inhoud);
+    assertEquals("Digest - CRC32C", String.format("%08x", crc32c.getValue()),
+                 Digest.toHex(Bestand.digest(BRON.toFile(), Digest.CRC32C)));
+
+    var digest  = Bestand.copy(BRON.toFile(), DOEL.toFile(), Digest.SHA256);
+    assertArrayEquals("Copy - digest", sha256, digest);
+    assertArrayEquals("Copy - inhoud", inhoud, Files.readAllBytes(DOEL));
+
+    var digests = Bestand.digest(Arrays.asList(BRON.toString(),
+                                               DOEL.toString()),
+                                 Digest.SHA256, 2);
+    assertEquals("Parallel - aantal", 2, digests.size());
+    assertArrayEquals("Parallel - bron", sha256,
+                      digests.get(BRON.toString()));
+    assertArrayEquals("Parallel - doel", sha256,
+                      digests.get(DOEL.toString()));
+
+    try {
+      Bestand.digest(Arrays.asList(BRON.toString(), BRON + ".onbekend"),
+                     Digest.SHA256, 2);
+      fail("Digest - onbekend gelukt :-(");
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("BEST-0001: "));
+    }
+  }
+
+  @Test
+  public void testEquals() throws BestandException, IOException {
+    Files.write(DOEL, inhoud);
+    assertTrue("Equals - gelijk",
+               Bestand.equals(BRON.toString(), DOEL.toString()));
+    assertEquals("Verschil - gelijk", -1L,
+                 Bestand.verschil(BRON.toFile(), DOEL.toFile()));
+
+    var anders  = inhoud.clone();
+    anders[4 * 1024 * 1024 + 17]  ^= 1;
+    Files.write(DOEL, anders);
+    assertFalse("Equals - anders",
+                Bestand.equals(BRON.toFile(), DOEL.toFile()));
+    assertEquals("Verschil - anders", 4 * 1024 * 1024 + 17L,
+                 Bestand.verschil(BRON.toString(), DOEL.toString()));
+
+    Files.write(DOEL, Arrays.copyOf(inhoud, inhoud.length - 3));
+    assertFalse("Equals - korter",
+                Bestand.equals(BRON.toString(), DOEL.toString()));
+    assertEquals("Verschil - korter", inhoud.length - 3L,
+                 Bestand.verschil(BRON.toString(), DOEL.toString()));
+  }
+
+  @Test
+  public void testEqualsTekst() throws BestandException, IOException {
+    Files.write(BRON.resolveSibling("bestandA.txt"),
+                "lijn 1\nlijn 2\n".getBytes());
+    Files.write(BRON.resolveSibling("bestandB.txt"),
+                "lijn 1\r\nlijn 2\r\n".getBytes());
+    try {
+      var bestandA  = BRON.resolveSibling("bestandA.txt").toString();
+      var bestandB  = BRON.resolveSibling("bestandB.txt").toString();
+      assertFalse("Equals - regeleindes",
+                  Bestand.equals(bestandA, bestandB));
+      assertTrue("EqualsTekst - regeleindes",
+                 Bestand.equalsTekst(bestandA, bestandB));
+
+      Files.write(Paths.get(bestandB), "lijn 1\nlijn 2\nlijn 3\n".getBytes());
+      assertFalse("EqualsTekst - extra lijn",
+                  Bestand.equalsTekst(bestandA, bestandB));
+      assertFalse("EqualsTekst - extra lijn omgekeerd",
+                  Bestand.equalsTekst(bestandB, bestandA));
+    } finally {
+      Files.deleteIfExists(BRON.resolveSibling("bestandA.txt"));
+      Files.deleteIfExists(BRON.resolveSibling("bestandB.txt"));
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import static junit.framework.TestCase.fail;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * @author Marco de Booij
+ */
+public class BestandVerwerkerTest {
+  private static final  Path  MAP =
+      Paths.get(System.getProperty("java.io.tmpdir"), "bestandVerwerker");
+
+  @AfterClass
+  public static void afterClass() throws BestandException {
+    Bestand.delete(MAP.toString());
+  }
+
+  @BeforeClass
+  public static void beforeClass() throws IOException {
+    Locale.setDefault(new Locale("nl"));
+
+    for (var i = 0; i < 4; i++) {
+      var sub = MAP.resolve("map" + i);
+      Files.createDirectories(sub);
+      for (var j = 0; j < 5; j++) {
+        Files.write(sub.resolve("bestand" + j + BestandConstants.EXT_CSV),
+                    new byte[i * 10 + j]);
+      }
+      Files.write(sub.resolve("bestand" + BestandConstants.EXT_JSON),
+                  new byte[1]);
+    }
+    Files.write(MAP.resolve("top" + BestandConstants.EXT_CSV), new byte[2]);
+  }
+
+  @Test
+  public void testFouten() throws BestandException {
+    var resultaat =
+        new BestandVerwerker.Builder()
+                            .setMap(MAP.toString())
+                            .setExtensies(BestandConstants.EXT_CSV)
+                            .setThreads(3)
+                            .build()
+                            .verwerk(bestand -> {
+                              if (bestand.endsWith("map1/bestand2.csv")) {
+                                throw new BestandException("fout");
+                              }
+                              return null;
+                            });
+    assertEquals("Fouten - aantal", 20L, resultaat.getAantal());
+    assertEquals("Fouten - fouten", 1, resultaat.getFouten().size());
+    assertTrue("Fouten - bestand",
+               resultaat.getFouten().containsKey(
+                   MAP.resolve("map1/bestand2.csv")));
+
+    try {
+      new BestandVerwerker.Builder().setMap(MAP.resolve("onbekend")
+                                               .toString())
+                                    .build();
+      fail("Map - onbekend gelukt :-(");
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("MAP-0001: "));
+    }
+
+    try {
+      new BestandVerwerker.Builder().setMap(MAP.resolve("top.csv")
+                                               .toString())
+                                    .build();
+      fail("Map - bestand gelukt :-(");
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("MAP-0002: "));
+    }
+  }
+
+  @Test
+  public void testHoofdletters() throws BestandException, IOException {
+    var map = MAP.resolveSibling("bestandVerwerkerHoofdletters");
+    Files.createDirectories(map);
+    Files.write(map.resolve("DATA.CSV"), new byte[1]);
+    Files.write(map.resolve("data.csv"), new byte[1]);
+    Files.write(map.resolve("csv"), new byte[1]);
+
+    try {
+      assertEquals("Hoofdletters - extensie", 2,
+                   new BestandVerwerker.Builder()
+                                       .setMap(map.toString())
+                                       .setExtensies(BestandConstants.EXT_CSV)
+                                       .build().zoek().size());
+      assertEquals("Hoofdletters - glob", 1,
+                   new BestandVerwerker.Builder().setMap(map.toString())
+                                                 .setGlob("*.csv")
+                                                 .build().zoek().size());
+    } finally {
+      Bestand.delete(map.toString());
+    }
+  }
+
+  @Test
+  public void testOnleesbareMap() throws BestandException, IOException {
+    var map = MAP.resolveSibling("bestandVerwerkerOnleesbaar");
+    var sub = map.resolve("sub");
+    Files.createDirectories(sub);
+    Files.write(sub.resolve("a.csv"), new byte[1]);
+    Files.write(map.resolve("b.csv"), new byte[1]);
+    sub.toFile().setReadable(false);
+
+    try {
+      var resultaat = new BestandVerwerker.Builder()
+                                          .setMap(map.toString())
+                                          .build()
+                                          .verwerk(bestand -> null);
+      if (!Files.isReadable(sub)) {
+        assertEquals("Onleesbaar - aantal", 1L, resultaat.getAantal());
+        assertTrue("Onleesbaar - fout",
+                   resultaat.getFouten().containsKey(sub));
+      }
+    } finally {
+      sub.toFile().setReadable(true);
+      Bestand.delete(map.toString());
+    }
+  }
+
+  @Test
+  public void testVerwerk() throws BestandException {
+    var verwerker = new BestandVerwerker.Builder()
+                                        .setMap(MAP.toString())
+                                        .setExtensies(BestandConstants.EXT_CSV)
+                                        .build();
+    var gevonden  = verwerker.zoek();
+    var namen     = new ArrayList<String>();
+    var resultaat = verwerker.verwerk(bestand -> bestand.toString(),
+                                      namen::add);
+    assertEquals("Verwerk - aantal", 21L, resultaat.getAantal());
+    assertEquals("Verwerk - bytes", 342L, resultaat.getBytes());
+    assertTrue("Verwerk - gelukt", resultaat.isGelukt());
+    assertEquals("Verwerk - zoek", 21, gevonden.size());
+    for (var i = 0; i < gevonden.size(); i++) {
+      assertEquals("Verwerk - volgorde " + i, gevonden.get(i).toString(),
+                   namen.get(i));
+    }
+  }
+
+  @Test
+  public void testVerwerkParallel() throws BestandException {
+    var bezig     = new AtomicInteger();
+    var hoogste   = new AtomicInteger();
+    var verwerker = new BestandVerwerker.Builder()
+                                        .setMap(MAP.toString())
+                                        .setGlob("**.csv")
+                                        .setThreads(4)
+                                        .setWachtrij(3)
+                                        .build();
+    var gevonden  = verwerker.zoek();
+    var namen     = new ArrayList<String>();
+    var resultaat = verwerker.verwerk(bestand -> {
+                                        hoogste.accumulateAndGet(
+                                            bezig.incrementAndGet(),
+                                            Math::max);
+                                        bezig.decrementAndGet();
+                                        return bestand.toString();
+                                      }, namen::add);
+    assertEquals("Parallel - aantal", 21L, resultaat.getAantal());
+    assertEquals("Parallel - bytes", 342L, resultaat.getBytes());
+    assertTrue("Parallel - wachtrij", hoogste.get() <= 3);
+    for (var i = 0; i < gevonden.size(); i++) {
+      assertEquals("Parallel - volgorde " + i, gevonden.get(i).toString(),
+                   namen.get(i));
+    }
+
+    namen.clear();
+    resultaat = new BestandVerwerker.Builder()
+                                    .setMap(MAP.toString())
+                                    .setGlob("**.csv")
+                                    .setGeordend(false)
+                                    .setThreads(4)
+                                    .build()
+                                    .verwerk(bestand -> bestand.toString(),
+                                             namen::add);
+    assertEquals("Ongeordend - aantal", 21L, resultaat.getAantal());
+    assertEquals("Ongeordend - namen", new HashSet<>(namen).size(), 21);
+  }
+
+  @Test
+  public void testZoek() throws BestandException {
+    assertEquals("Zoek - alles", 25,
+                 new BestandVerwerker.Builder().setMap(MAP.toString())
+                                               .build().zoek().size());
+    assertEquals("Zoek - json", 4,
+                 new BestandVerwerker.Builder()
+                                     .setMap(MAP.toString())
+                                     .setExtensies(BestandConstants.EXT_JSON)
+                                     .build().zoek().size());
+    assertEquals("Zoek - glob", 1,
+                 new BestandVerwerker.Builder().setMap(MAP.toString())
+                                               .setGlob("*.csv")
+                                               .build().zoek().size());
+    assertEquals("Zoek - diepte", 1,
+                 new BestandVerwerker.Builder().setMap(MAP.toString())
+                                               .setDiepte(1)
+                                               .build().zoek().size());
+    assertEquals("Zoek - glob map", 5,
+                 new BestandVerwerker.Builder()
+                                     .setMap(MAP.toString())
+                                     .setGlob("map2/*")
+                                     .setExtensies(BestandConstants.EXT_CSV)
+                                     .build().zoek().size());
+  }
+}
@@ -17,10 +17,26 @@
 package eu.debooy.doosutils.access;
 
 import eu.debooy.doosutils.exception.BestandException;
+import eu.debooy.doosutils.exception.UncheckedBestandException;
 import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.MessageFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import static junit.framework.TestCase.fail;
 import org.junit.AfterClass;
 import static org.junit.Assert.assertArrayEquals;
@@ -286,6 +302,53 @@ public class CsvBestandTest {
     }
   }
 
+  @Test
+  public void testDouble() throws BestandException, IOException {
+    var lezer   = new CsvLezer(new StringReader("+,+.,-,-.,.,+1.5,-.5,5.\n"),
+                               "\"", ",");
+    var record  = new CsvRecord(new HashMap<>());
+    lezer.leesRecord(record);
+    for (var i = 0; i < 5; i++) {
+      try {
+        record.getDouble(i);
+        fail("Double - " + record.getVeld(i) + " gelukt :-(");
+      } catch (BestandException e) {
+        assertTrue("Double - " + record.getVeld(i),
+                   e.getLocalizedMessage().startsWith("CSV-0005: "));
+      }
+    }
+    assertEquals("Double - +1.5", 1.5, record.getDouble(5), 0.0);
+    assertEquals("Double - -.5", -0.5, record.getDouble(6), 0.0);
+    assertEquals("Double - 5.", 5.0, record.getDouble(7), 0.0);
+  }
+
+  @Test
+  public void testGzip() throws BestandException {
+    var bestand = TEMP + File.separator + "testGzip.csv";
+    try (var csvBestand =
+            new CsvBestand.Builder().setBestand(bestand)
+                                    .setCompressie(Compressie.GZIP)
+                                    .setKolomNamen(new String[] {"a", "b"})
+                                    .setLezen(false)
+                                    .build()) {
+      for (var i = 0; i < 5000; i++) {
+        csvBestand.write("a" + i, "b,\"" + i);
+      }
+    }
+
+    try (var csvBestand = new CsvBestand.Builder().setBestand(bestand)
+                                                  .setThreads(2)
+                                                  .build()) {
+      var records = new ArrayList<String[]>();
+      csvBestand.verwerk(records::add);
+      assertEquals("Gzip - records", 5000, records.size());
+      assertArrayEquals("Gzip - record", new String[] {"a4999", "b,\"4999"},
+                        records.get(4999));
+    }
+
+    Bestand.delete(bestand);
+  }
+
   @Test
   public void testHeadingLeeg() {
     @SuppressWarnings("unused")
@@ -371,6 +434,358 @@ public class CsvBestandTest {
     }
   }
 
+  @Test
+  public void testMeerdereLijnen() throws BestandException {
+    var bestand = TEMP + File.separator + "testMeerdereLijnen.csv";
+    var tekst   = "lijn 1" + System.lineSeparator() + "\"lijn\", 2\nlijn 3";
+
+    try (var csvBestand = new CsvBestand.Builder().setBestand(bestand)
+                                                  .setLezen(false)
+                                                  .setKolomNamen(KOLOMMEN)
+                                                  .build()) {
+      csvBestand.write("Edward", tekst);
+      csvBestand.write("Pi", 3.1416);
+      try {
+        csvBestand.write("x");
+        fail("MeerdereLijnen - Schrijven lijn 6 is gelukt :-(");
+      } catch (BestandException e) {
+        assertEquals("MeerdereLijnen - schrijven", MessageFormat.format(
+              resourceBundle.getString(BestandConstants.ERR_CSV_KOLOM_AANTAL),
+                                                           1, 2, 6),
+                                      e.getLocalizedMessage());
+      }
+    }
+
+    try (var csvBestand = new CsvBestand.Builder().setBestand(bestand)
+                                                  .build()) {
+      assertArrayEquals("MeerdereLijnen - 1",
+                        new String[] {"Edward", tekst}, csvBestand.next());
+      assertArrayEquals("MeerdereLijnen - 2",
+                        new String[] {"Pi", "3.1416"}, csvBestand.next());
+      assertFalse("MeerdereLijnen - next", csvBestand.hasNext());
+    }
+
+    Bestand.delete(bestand);
+  }
+
+  @Test
+  public void testLijnNummers() throws BestandException, IOException {
+    var bestand = Paths.get(TEMP, "testLijnNummers.csv");
+    Files.write(bestand,
+                "Naam,waarde\n\"a\nb\r\nc\",1\nd,2\ne\n"
+                    .getBytes(StandardCharsets.UTF_8));
+
+    try (var csvBestand = new CsvBestand.Builder()
+                                        .setBestand(bestand.toString())
+                                        .build()) {
+      assertEquals("LijnNummers - 1", 1, csvBestand.nextRecord().getLijn());
+      assertEquals("LijnNummers - 2", 4, csvBestand.nextRecord().getLijn());
+      csvBestand.next();
+      fail("LijnNummers - Lezen lijn 5 is gelukt :-(");
+    } catch (BestandException e) {
+      assertEquals("LijnNummers - 5", MessageFormat.format(
+              resourceBundle.getString(BestandConstants.ERR_CSV_KOLOM_AANTAL),
+                                                           1, 2, 5),
+                                      e.getLocalizedMessage());
+    }
+
+    try (var csvBestand = new CsvBestand.Builder()
+                                        .setBestand(bestand.toString())
+                                        .setBlokGrootte(1)
+                                        .setThreads(2)
+                                        .build()) {
+      csvBestand.verwerk(velden -> {});
+      fail("LijnNummers - Parallel lijn 5 is gelukt :-(");
+    } catch (BestandException e) {
+      assertEquals("LijnNummers - parallel", MessageFormat.format(
+              resourceBundle.getString(BestandConstants.ERR_CSV_KOLOM_AANTAL),
+                                                           1, 2, 5),
+                                      e.getLocalizedMessage());
+    }
+
+    try (var csvBestand = new CsvBestand.Builder()
+                                        .setBestand(bestand.toString())
+                                        .setHeader(false)
+                                        .build()) {
+      csvBestand.verwerk(velden -> {});
+      fail("LijnNummers - Zonder kop lijn 6 is gelukt :-(");
+    } catch (BestandException e) {
+      assertEquals("LijnNummers - zonder kop", MessageFormat.format(
+              resourceBundle.getString(BestandConstants.ERR_CSV_KOLOM_AANTAL),
+                                                           1, 2, 6),
+                                      e.getLocalizedMessage());
+    }
+
+    Files.delete(bestand);
+  }
+
+  @Test
+  public void testParallel() throws BestandException {
+    var bestand = TEMP + File.separator + "testParallel.csv";
+    try (var csvBestand = new CsvBestand.Builder().setBestand(bestand)
+                                                  .setLezen(false)
+                                                  .setKolomNamen(KOLOMMEN)
+                                                  .build()) {
+      for (var i = 0; i < 1000; i++) {
+        csvBestand.write("Naam " + i,
+                         (i % 10 == 0) ? "lijn 1\n\"lijn\" 2" : i);
+      }
+    }
+
+    List<String>  sequentieel = new ArrayList<>();
+    try (var csvBestand = new CsvBestand.Builder().setBestand(bestand)
+                                                  .build()) {
+      csvBestand.verwerk(velden -> sequentieel.add(String.join("|", velden)));
+    }
+
+    List<String>  geordend    = new ArrayList<>();
+    try (var csvBestand = new CsvBestand.Builder().setBestand(bestand)
+                                                  .setThreads(3)
+                                                  .setBlokGrootte(100)
+                                                  .build()) {
+      csvBestand.verwerk(velden -> geordend.add(String.join("|", velden)));
+      assertTrue("Parallel - EOF", csvBestand.isEof());
+    }
+
+    Set<String>   ongeordend  = ConcurrentHashMap.newKeySet();
+    try (var csvBestand = new CsvBestand.Builder().setBestand(bestand)
+                                                  .setThreads(3)
+                                                  .setBlokGrootte(100)
+                                                  .setGeordend(false)
+                                                  .build()) {
+      csvBestand.verwerk(velden -> ongeordend.add(String.join("|", velden)));
+    }
+
+    assertEquals("Parallel - aantal", 1000, sequentieel.size());
+    assertEquals("Parallel - geordend", sequentieel, geordend);
+    assertEquals("Parallel - ongeordend",
+                 new HashSet<>(sequentieel), ongeordend);
+
+    Bestand.delete(bestand);
+  }
+
+  @Test
+  public void testParallelLegeLijn() throws BestandException {
+    try (var csvBestand =
+            new CsvBestand.Builder().setBestand(TEMP + File.separator
+                                                + "testheading.csv")
+                                    .setThreads(2)
+                                    .setBlokGrootte(1)
+                                    .build()) {
+      csvBestand.verwerk(velden -> {});
+    }
+
+    try (var bron = new TekstBestand.Builder()
+                                    .setClassLoader(CLASSLOADER)
+                                    .setBestand("testheadingLegeLijn.csv")
+                                    .build();
+         var doel = new TekstBestand.Builder()
+                                    .setBestand(TEMP + File.separator
+                                                + "testLegeLijn.csv")
+                                    .setLezen(false).build()) {
+      doel.add(bron);
+    }
+    try (var csvBestand =
+            new CsvBestand.Builder().setBestand(TEMP + File.separator
+                                                + "testLegeLijn.csv")
+                                    .setThreads(2)
+                                    .setBlokGrootte(1)
+                                    .build()) {
+      csvBestand.verwerk(velden -> {});
+      fail("ParallelLegeLijn - Lezen lijn 4 is gelukt :-(");
+    } catch (BestandException e) {
+      assertEquals("ParallelLegeLijn - 4 - ", MessageFormat.format(
+              resourceBundle.getString(BestandConstants.ERR_CSV_KOLOM_AANTAL),
+                                                           1, 2, 4),
+                                      e.getLocalizedMessage());
+    }
+
+    Bestand.delete(TEMP + File.separator + "testLegeLijn.csv");
+  }
+
+  @Test
+  public void testQuotes() throws BestandException {
+    try (var csvBestand =
+            new CsvBestand.Builder().setClassLoader(CLASSLOADER)
+                                    .setBestand("testQuotes.csv")
+                                    .build()) {
+      assertArrayEquals("Quotes - kolommen",
+                        new String[] {"Naam", "Opmerking", "Waarde"},
+                        csvBestand.getKolomNamen());
+      assertArrayEquals("Quotes - 1",
+                        new String[] {"de Booij, Marco",
+                                      "Hij zei \"hallo\"", "12.345"},
+                        csvBestand.next());
+      assertArrayEquals("Quotes - 2",
+                        new String[] {"", "a\"b", ""},
+                        csvBestand.next());
+      assertFalse("Quotes - next", csvBestand.hasNext());
+    }
+  }
+
+  @Test
+  public void testQuotesBuffergrens() throws IOException {
+    var begin = new char[8192 - 4];
+    Arrays.fill(begin, 'x');
+    var tekst = new String(begin) + ",\"a\"\"b\"\nc,d\n";
+    assertEquals("Grens - positie", 8191, tekst.indexOf("\"\""));
+
+    var lezer   = new CsvLezer(new StringReader(tekst), "\"", ",");
+    var record  = new CsvRecord(new HashMap<>());
+    assertTrue("Grens - 1", lezer.leesRecord(record));
+    assertArrayEquals("Grens - velden 1",
+                      new String[] {new String(begin), "a\"b"},
+                      record.getVelden());
+    assertTrue("Grens - 2", lezer.leesRecord(record));
+    assertArrayEquals("Grens - velden 2", new String[] {"c", "d"},
+                      record.getVelden());
+    assertFalse("Grens - einde", lezer.leesRecord(record));
+  }
+
+  @Test
+  public void testRecord() throws BestandException {
+    try (var csvBestand =
+            new CsvBestand.Builder().setClassLoader(CLASSLOADER)
+                                    .setBestand("testheading.csv")
+                                    .build()) {
+      var record  = csvBestand.nextRecord();
+      assertEquals("Record - lijn", 1, record.getLijn());
+      assertEquals("Record - aantal", 2, record.getAantal());
+      assertEquals("Record - naam", "Edward",
+                   record.getVeld("Naam").toString());
+      assertEquals("Record - lengte", 1, record.getVeld(1).length());
+      assertEquals("Record - teken", '3', record.getVeld("waarde").charAt(0));
+
+      csvBestand.nextRecord();
+      record  = csvBestand.nextRecord();
+      assertArrayEquals("Record - velden",
+                        new String[] {"de Booij, Marco", "12.345"},
+                        record.getVelden());
+      assertFalse("Record - next", csvBestand.hasNext());
+      try {
+        record.getVeld("Onbekend");
+        fail("Record - Onbekende kolom gevonden :-(");
+      } catch (BestandException e) {
+        assertEquals("Record - Onbekende kolom",
+                     MessageFormat.format(
+            resourceBundle.getString(BestandConstants.ERR_CSV_ONBEKEND),
+                                          "Onbekend"),
+                     e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testStream() throws BestandException {
+    var bestand = TEMP + File.separator + "testStream.csv";
+    try (var csvBestand = new CsvBestand.Builder().setBestand(bestand)
+                                                  .setLezen(false)
+                                                  .setKolomNamen(KOLOMMEN)
+                                                  .build()) {
+      for (var i = 0; i < 1000; i++) {
+        csvBestand.write("Naam " + i,
+                         (i % 10 == 0) ? "lijn 1\n\"lijn\" 2" : i);
+      }
+    }
+
+    List<String>  sequentieel;
+    try (var csvBestand = new CsvBestand.Builder().setBestand(bestand)
+                                                  .build()) {
+      sequentieel = csvBestand.stream()
+                              .map(velden -> String.join("|", velden))
+                              .collect(Collectors.toList());
+      assertTrue("Stream - EOF", csvBestand.isEof());
+    }
+
+    List<String>  parallel;
+    try (var csvBestand = new CsvBestand.Builder().setBestand(bestand)
+                                                  .setBlokGrootte(100)
+                                                  .build()) {
+      parallel  = csvBestand.stream().parallel()
+                            .map(velden -> String.join("|", velden))
+                            .collect(Collectors.toList());
+      assertTrue("Stream - parallel EOF", csvBestand.isEof());
+    }
+
+    assertEquals("Stream - aantal", 1000, sequentieel.size());
+    assertEquals("Stream - eerste", "Naam 0|lijn 1\n\"lijn\" 2",
+                 sequentieel.get(0));
+    assertEquals("Stream - parallel", sequentieel, parallel);
+
+    Bestand.delete(bestand);
+
+    try (var bron = new TekstBestand.Builder()
+                                    .setClassLoader(CLASSLOADER)
+                                    .setBestand("testheadingLegeLijn.csv")
+                                    .build();
+         var doel = new TekstBestand.Builder()
+                                    .setBestand(TEMP + File.separator
+                                                + "testLegeLijn.csv")
+                                    .setLezen(false).build()) {
+      doel.add(bron);
+    }
+    try (var csvBestand =
+            new CsvBestand.Builder().setBestand(TEMP + File.separator
+                                                + "testLegeLijn.csv")
+                                    .setBlokGrootte(1)
+                                    .build()) {
+      csvBestand.stream().parallel().count();
+      fail("Stream - Lezen lijn 4 is gelukt :-(");
+    } catch (UncheckedBestandException e) {
+      assertEquals("Stream - 4 - ", MessageFormat.format(
+              resourceBundle.getString(BestandConstants.ERR_CSV_KOLOM_AANTAL),
+                                                           1, 2, 4),
+                                      e.getCause().getLocalizedMessage());
+    }
+
+    Bestand.delete(TEMP + File.separator + "testLegeLijn.csv");
+  }
+
+  @Test
+  public void testTypes() throws BestandException {
+    try (var csvBestand =
+            new CsvBestand.Builder().setClassLoader(CLASSLOADER)
+                                    .setBestand("testTypes.csv")
+                                    .build()) {
+      var record  = csvBestand.nextRecord();
+      assertEquals("Types - int", 3, record.getInt("Aantal"));
+      assertEquals("Types - long", Long.MIN_VALUE, record.getLong(2));
+      assertEquals("Types - double", 3.1416, record.getDouble("Prijs"), 0.0);
+      assertTrue("Types - boolean", record.getBoolean("Actief"));
+      assertEquals("Types - datum", LocalDate.of(2026, 10, 17),
+                   record.getLocalDate("Datum"));
+      try {
+        record.getInt("Groot");
+        fail("Types - int overflow gelukt :-(");
+      } catch (BestandException e) {
+        assertEquals("Types - int overflow",
+                     MessageFormat.format(
+            resourceBundle.getString(BestandConstants.ERR_CSV_VELD_FOUT),
+                                          "Groot", 1, "int",
+                                          "-9223372036854775808"),
+                     e.getMessage());
+      }
+
+      record  = csvBestand.nextRecord();
+      assertEquals("Types - long 2", 12L, record.getLong("Groot"));
+      assertEquals("Types - double 2", 1000.0, record.getDouble(3), 0.0);
+      assertFalse("Types - boolean 2", record.getBoolean(4));
+      assertEquals("Types - datum 2", LocalDate.of(2026, 10, 17),
+                   record.getLocalDate("Datum",
+                       DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+      try {
+        record.getInt(1);
+        fail("Types - int gelukt :-(");
+      } catch (BestandException e) {
+        assertEquals("Types - int",
+                     MessageFormat.format(
+            resourceBundle.getString(BestandConstants.ERR_CSV_VELD_FOUT),
+                                          1, 2, "int", "x"),
+                     e.getMessage());
+      }
+    }
+  }
+
   @Test
   public void testUitvoer() throws BestandException {
     CsvBestand  csvBestand  = null;
@@ -524,4 +939,37 @@ public class CsvBestandTest {
             Bestand.openInvoerBestand(TEMP + File.separator
                                       + "testheading.csv")));
   }
+
+  @Test
+  public void testZip() throws BestandException {
+    var zip = TEMP + File.separator + "testCsv.zip";
+    new ZipBestand.Builder().setLezen(false).setZip(zip).build()
+                  .inpakken(TEMP + File.separator + "test.csv");
+
+    try (var csvBestand = new CsvBestand.Builder().setBestand("test.csv")
+                                                  .setHeader(false)
+                                                  .setThreads(2)
+                                                  .setZip(zip)
+                                                  .build()) {
+      assertEquals("Zip - naam", zip + "!/test.csv", csvBestand.getBestand());
+      var records = new ArrayList<String[]>();
+      csvBestand.verwerk(records::add);
+      assertEquals("Zip - records", 3, records.size());
+      assertArrayEquals("Zip - record",
+                        new String[] {"de Booij, Marco", "12.345"},
+                        records.get(2));
+    }
+
+    try {
+      new CsvBestand.Builder().setBestand("test.csv").setLezen(false)
+                              .setZip(zip).build();
+      fail("Zip - schrijven gelukt :-(");
+    } catch (BestandException e) {
+      assertEquals("Zip - schrijven", MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_ZIP_READONLY), zip),
+                   e.getMessage());
+    }
+
+    Bestand.delete(zip);
+  }
 }
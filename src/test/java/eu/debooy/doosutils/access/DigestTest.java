@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import static junit.framework.TestCase.fail;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * @author Marco de Booij
+ */
+public class DigestTest {
+  private static final  byte[]  TEKST =
+      "123456789".getBytes(StandardCharsets.US_ASCII);
+
+  @BeforeClass
+  public static void beforeClass() {
+    Locale.setDefault(new Locale("nl"));
+  }
+
+  @Test
+  public void testChecksum() throws BestandException {
+    var digest  = Digest.getInstance(Digest.CRC32);
+    digest.update(TEKST, 0, TEKST.length);
+    assertEquals("CRC32", "cbf43926", Digest.toHex(digest.digest()));
+
+    digest  = Digest.getInstance("crc32c");
+    assertEquals("CRC32C - algoritme", Digest.CRC32C, digest.getAlgoritme());
+    var buffer  = ByteBuffer.allocateDirect(TEKST.length);
+    buffer.put(TEKST).flip();
+    digest.update(buffer);
+    assertEquals("CRC32C", "e3069283", Digest.toHex(digest.digest()));
+  }
+
+  @Test
+  public void testOnbekend() {
+    try {
+      Digest.getInstance("onbekend");
+      fail("Digest - onbekend gelukt :-(");
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("DIG-0001: "));
+    }
+  }
+
+  @Test
+  public void testTee() throws BestandException, IOException {
+    var digest  = Digest.getInstance(Digest.SHA256);
+    var uitvoer = new ByteArrayOutputStream();
+    try (var tee = digest.tee(uitvoer)) {
+      tee.write(TEKST[0]);
+      tee.write(TEKST, 1, TEKST.length - 1);
+    }
+    assertArrayEquals("Tee - uitvoer", TEKST, uitvoer.toByteArray());
+    var geschreven  = digest.digest();
+    assertEquals("Tee - SHA-256",
+        "15e2b0d3c33891ebb0f1ef609ec419420c20e320ce94c65fbc8c3312448eb225",
+                 Digest.toHex(geschreven));
+
+    try (var tee = digest.tee(new ByteArrayInputStream(TEKST))) {
+      assertEquals("Tee - eerste", TEKST[0], tee.read());
+      tee.readAllBytes();
+    }
+    assertArrayEquals("Tee - gelezen", geschreven, digest.digest());
+  }
+}
@@ -19,13 +19,17 @@ package eu.debooy.doosutils.access;
 import eu.debooy.doosutils.exception.BestandException;
 import java.io.File;
 import java.io.IOException;
+import java.text.MessageFormat;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
+import static junit.framework.TestCase.fail;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -144,6 +148,92 @@ public class JsonBestandTest {
     }
   }
 
+  @Test
+  public void testPaden() throws BestandException {
+    try (var jsonBestand = new JsonBestand.Builder()
+                                          .setClassLoader(CLASSLOADER)
+                                          .setBestand(BST_PRETTYUITVOER)
+                                          .setPaden("naam", "tags[1]",
+                                                    "voor,raad.magazijn")
+                                          .build()) {
+      var gelezen = (JSONObject) jsonBestand.read();
+      assertEquals("Paden - sleutels", 3, gelezen.size());
+      assertEquals("Paden - naam", "Jan", jsonBestand.get("naam"));
+      assertFalse("Paden - id", jsonBestand.containsKey("id"));
+      assertNull("Paden - tags[0]", jsonBestand.getPad("tags[0]"));
+      assertEquals("Paden - tags[1]", "Noot", jsonBestand.getPad("tags[1]"));
+      assertEquals("Paden - magazijn", 300L,
+                   jsonBestand.getPad("voor,raad.magazijn"));
+      assertNull("Paden - winkel", jsonBestand.getPad("voor,raad.win\"kel"));
+    }
+
+    var bestand = TEMP + File.separator + "testPaden.json";
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setLezen(false)
+                                                      .build()) {
+      tekstBestand.write("[{\"a\":{\"b\":[0,1,2,{\"c\":\"x]\\\"{\"}]}},");
+      tekstBestand.write(" {\"a\":[{\"b\":\"}\"}], \"d\":true}]");
+    }
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .setPaden("[0].a.b[3].c",
+                                                              "[1].d")
+                                                    .build()) {
+      assertEquals("Paden - c", "x]\"{", jsonBestand.getPad("[0].a.b[3].c"));
+      assertEquals("Paden - d", Boolean.TRUE, jsonBestand.getPad("[1].d"));
+      assertNull("Paden - [1].a", jsonBestand.getPad("[1].a"));
+      assertNull("Paden - b[2]", jsonBestand.getPad("[0].a.b[2]"));
+    }
+
+    try {
+      new JsonBestand.Builder().setBestand(bestand).setPaden("a..b").build();
+      fail("Paden - ongeldig pad gelukt :-(");
+    } catch (BestandException e) {
+      assertEquals("Paden - ongeldig pad", MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_JSON_PAD), "a..b"),
+                   e.getMessage());
+    }
+
+    try {
+      new JsonBestand.Builder().setBestand(bestand).setPaden("[1].d")
+                               .setStreaming(true).build();
+      fail("Paden - streaming gelukt :-(");
+    } catch (BestandException e) {
+      assertEquals("Paden - streaming",
+          resourceBundle.getString(BestandConstants.ERR_JSON_PADEN),
+                   e.getMessage());
+    }
+
+    Bestand.delete(bestand);
+  }
+
+  @Test
+  public void testPrettyInspringing() throws BestandException {
+    var bestand = TEMP + File.separator + "testPrettyInspringing.json";
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .setInspringing(4)
+                                                    .setLezen(false)
+                                                    .setPrettify(true)
+                                                    .setStreaming(true)
+                                                    .build()) {
+      assertEquals("Pretty Inspringing - 4", 4, jsonBestand.getInspringing());
+      jsonBestand.add(new JSONObject());
+      jsonBestand.add("Aap");
+      jsonBestand.add(new JSONArray());
+    }
+
+    var verwacht  = new String[] {"[", "    {},", "    \"Aap\",", "    []",
+                                  "]"};
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .build()) {
+      for (var lijn : verwacht) {
+        assertEquals("Pretty Inspringing", lijn, tekstBestand.next());
+      }
+      assertFalse("Pretty Inspringing - EOF", tekstBestand.hasNext());
+    }
+
+    Bestand.delete(bestand);
+  }
+
   @Test
   public void testPrettyInvoer() throws BestandException {
     JsonBestand jsonBestand = null;
@@ -196,6 +286,219 @@ public class JsonBestandTest {
     Bestand.delete(TEMP + File.separator + BST_UITVOER);
   }
 
+  @Test
+  public void testStreaming() throws BestandException, ParseException {
+    var bestand = TEMP + File.separator + "testStreaming.json";
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setCharset("UTF-8")
+                                                      .setLezen(false)
+                                                      .build()) {
+      tekstBestand.write("[");
+      for (var i = 0; i < 1000; i++) {
+        tekstBestand.write("  " + JSONSTRING.replace("\"id\":1",
+                                                     "\"id\":" + i) + ",");
+      }
+      tekstBestand.write("  " + JSONSTRING2 + ", [1, -2.5e3, true],");
+      tekstBestand.write("  \"\\u00e9\\n\", null");
+      tekstBestand.write("]");
+    }
+
+    var parser    = new JSONParser();
+    var verwacht  = (JSONObject) parser.parse(JSONSTRING);
+    var elementen = 0;
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .setStreaming(true)
+                                                    .build()) {
+      assertTrue("Streaming - streaming", jsonBestand.isStreaming());
+      while (elementen < 1000) {
+        verwacht.put("id", (long) elementen);
+        assertEquals("Streaming - " + elementen, verwacht,
+                     jsonBestand.next());
+        elementen++;
+      }
+      assertEquals("Streaming - 2", parser.parse(JSONSTRING2),
+                   jsonBestand.next());
+      assertEquals("Streaming - tabel", "[1,-2500.0,true]",
+                   ((JSONArray) jsonBestand.next()).toJSONString());
+      assertEquals("Streaming - string", "\u00e9\n", jsonBestand.next());
+      assertTrue("Streaming - null", jsonBestand.hasNext());
+      assertNull("Streaming - null", jsonBestand.next());
+      assertTrue("Streaming - EOF", jsonBestand.isEof());
+    }
+
+    try (var jsonBestand = new JsonBestand.Builder()
+                                          .setClassLoader(CLASSLOADER)
+                                          .setBestand(BST_PRETTYUITVOER)
+                                          .setStreaming(true)
+                                          .build()) {
+      assertEquals("Streaming - object", json,
+                   ((JSONObject) jsonBestand.next()).toJSONString());
+      assertFalse("Streaming - object EOF", jsonBestand.hasNext());
+    }
+
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setLezen(false)
+                                                      .build()) {
+      tekstBestand.write("[" + JSONSTRING2 + " " + JSONSTRING2 + "]");
+    }
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .setStreaming(true)
+                                                    .build()) {
+      jsonBestand.next();
+      fail("Streaming - fout gelukt :-(");
+    } catch (BestandException e) {
+      assertEquals("Streaming - fout", MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_JSON_SYNTAX), 24, "]"),
+                   e.getMessage());
+    }
+
+    Bestand.delete(bestand);
+  }
+
+  @Test
+  public void testStreamingAppend() throws BestandException, ParseException {
+    var bestand = TEMP + File.separator + "testStreamingAppend.json";
+    var parser  = new JSONParser();
+    for (var prettify : new boolean[] {false, true}) {
+      try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                      .setLezen(false)
+                                                      .setPrettify(prettify)
+                                                      .setStreaming(true)
+                                                      .build()) {
+        jsonBestand.add(parser.parse(JSONSTRING));
+      }
+      for (var i = 0; i < 2; i++) {
+        try (var jsonBestand = new JsonBestand.Builder().setAppend(true)
+                                                        .setBestand(bestand)
+                                                        .setLezen(false)
+                                                        .setPrettify(prettify)
+                                                        .setStreaming(true)
+                                                        .build()) {
+          jsonBestand.add(parser.parse(JSONSTRING2));
+          jsonBestand.add((long) i);
+        }
+      }
+
+      try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                      .build()) {
+        assertEquals("Streaming Append - " + prettify,
+                     parser.parse("[" + JSONSTRING + "," + JSONSTRING2
+                                  + ",0," + JSONSTRING2 + ",1]"),
+                     jsonBestand.read());
+      }
+    }
+
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setLezen(false)
+                                                      .build()) {
+      tekstBestand.write("[ ]");
+    }
+    try (var jsonBestand = new JsonBestand.Builder().setAppend(true)
+                                                    .setBestand(bestand)
+                                                    .setLezen(false)
+                                                    .setStreaming(true)
+                                                    .build()) {
+      jsonBestand.add(1L);
+    }
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .build()) {
+      assertEquals("Streaming Append - leeg", "[1]",
+                   ((JSONArray) jsonBestand.read()).toJSONString());
+    }
+
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .setLezen(false)
+                                                    .setStreaming(true)
+                                                    .build()) {
+      jsonBestand.add("id", 2L);
+    }
+    try (var jsonBestand = new JsonBestand.Builder().setAppend(true)
+                                                    .setBestand(bestand)
+                                                    .setLezen(false)
+                                                    .setStreaming(true)
+                                                    .build()) {
+      jsonBestand.add("naam", "Piet");
+    }
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .build()) {
+      assertEquals("Streaming Append - object", parser.parse(JSONSTRING2),
+                   jsonBestand.read());
+    }
+
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setLezen(false)
+                                                      .build()) {
+      tekstBestand.write("  ]");
+    }
+    try {
+      new JsonBestand.Builder().setAppend(true).setBestand(bestand)
+                               .setLezen(false).setStreaming(true).build();
+      fail("Streaming Append - enkel slot gelukt :-(");
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("JSN-0004: "));
+    }
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .build()) {
+      assertEquals("Streaming Append - onveranderd", "  ]",
+                   tekstBestand.next());
+    }
+
+    Bestand.delete(bestand);
+  }
+
+  @Test
+  public void testStreamingUitvoer() throws BestandException, ParseException {
+    var bestand = TEMP + File.separator + "testStreamingUitvoer.json";
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .setLezen(false)
+                                                    .setStreaming(true)
+                                                    .build()) {
+      var parser  = new JSONParser();
+      for (var i = 0; i < 1000; i++) {
+        jsonBestand.add(parser.parse(JSONSTRING));
+      }
+      jsonBestand.add("tekst");
+      jsonBestand.add(null);
+      try {
+        jsonBestand.add("sleutel", 1L);
+        fail("Streaming Uitvoer - object gelukt :-(");
+      } catch (BestandException e) {
+        assertEquals("Streaming Uitvoer - object", MessageFormat.format(
+            resourceBundle.getString(BestandConstants.ERR_JSON_STRUCTUUR),
+            "object"), e.getMessage());
+      }
+    }
+
+    var elementen = 0;
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .setStreaming(true)
+                                                    .build()) {
+      while (elementen < 1000) {
+        assertEquals("Streaming Uitvoer - " + elementen, json,
+                     ((JSONObject) jsonBestand.next()).toJSONString());
+        elementen++;
+      }
+      assertEquals("Streaming Uitvoer - tekst", "tekst", jsonBestand.next());
+      assertNull("Streaming Uitvoer - null", jsonBestand.next());
+      assertTrue("Streaming Uitvoer - EOF", jsonBestand.isEof());
+    }
+
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .setLezen(false)
+                                                    .setStreaming(true)
+                                                    .build()) {
+      jsonBestand.add("id", 2L);
+      jsonBestand.add("naam", "Piet");
+    }
+    try (var jsonBestand = new JsonBestand.Builder().setBestand(bestand)
+                                                    .build()) {
+      assertEquals("Streaming Uitvoer - members",
+                   new JSONParser().parse(JSONSTRING2), jsonBestand.read());
+    }
+
+    Bestand.delete(bestand);
+  }
+
   @Test
   public void testUitvoer() throws BestandException {
     JsonBestand jsonBestand = null;
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import eu.debooy.doosutils.exception.BestandException;
+import java.io.File;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.stream.Collectors;
+import static junit.framework.TestCase.fail;
+import org.json.simple.JSONObject;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+
+/**
+ * @author Marco de Booij
+ */
+public class JsonLinesBestandTest {
+  protected static  ResourceBundle  resourceBundle;
+
+  protected static final  String  BESTAND =
+      System.getProperty("java.io.tmpdir") + File.separator + "test.jsonl";
+
+  @AfterClass
+  public static void afterClass() throws BestandException {
+    Bestand.delete(BESTAND);
+  }
+
+  @BeforeClass
+  public static void beforeClass() throws BestandException {
+    Locale.setDefault(new Locale("nl"));
+    resourceBundle   = ResourceBundle.getBundle("DoosUtils-file",
+                                                Locale.getDefault());
+
+    try (var jsonLines = new JsonLinesBestand.Builder().setBestand(BESTAND)
+                                                       .setLezen(false)
+                                                       .build()) {
+      for (var i = 0; i < 5000; i++) {
+        var element = new JSONObject();
+        element.put("id", (long) i);
+        element.put("naam", "Naam\n" + i);
+        jsonLines.write(element);
+      }
+    }
+  }
+
+  private static List<Object> leesAlles(int threads)
+      throws BestandException {
+    List<Object>  resultaat = new ArrayList<>();
+    try (var jsonLines = new JsonLinesBestand.Builder().setBestand(BESTAND)
+                                                       .setThreads(threads)
+                                                       .build()) {
+      jsonLines.verwerk(resultaat::add);
+      assertTrue("EOF", jsonLines.isEof());
+    }
+
+    return resultaat;
+  }
+
+  @Test
+  public void testAppend() throws BestandException {
+    var bestand = BESTAND + ".append";
+    for (var i = 0; i < 3; i++) {
+      try (var jsonLines = new JsonLinesBestand.Builder().setAppend(true)
+                                                         .setBestand(bestand)
+                                                         .setLezen(false)
+                                                         .build()) {
+        jsonLines.write((long) i);
+        jsonLines.write("tekst " + i);
+      }
+    }
+
+    try (var jsonLines = new JsonLinesBestand.Builder().setBestand(bestand)
+                                                       .build()) {
+      for (var i = 0; i < 3; i++) {
+        assertEquals("Append - getal", (long) i, jsonLines.next());
+        assertEquals("Append - tekst", "tekst " + i, jsonLines.next());
+      }
+      assertFalse("Append - EOF", jsonLines.hasNext());
+    }
+
+    Bestand.delete(bestand);
+  }
+
+  @Test
+  public void testFout() throws BestandException {
+    var bestand = BESTAND + ".fout";
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setLezen(false)
+                                                      .build()) {
+      tekstBestand.write("");
+      tekstBestand.write("{\"id\":1}");
+      tekstBestand.write("   ");
+      tekstBestand.write("{\"id\":2,}");
+    }
+
+    try (var jsonLines = new JsonLinesBestand.Builder().setBestand(bestand)
+                                                       .build()) {
+      assertTrue("Fout - lijn 2", jsonLines.next() instanceof JSONObject);
+      jsonLines.next();
+      fail("Fout - lijn 4 gelukt :-(");
+    } catch (BestandException e) {
+      assertEquals("Fout - lijn 4", MessageFormat.format(
+          resourceBundle.getString(BestandConstants.ERR_JSON_LIJN), 4,
+          MessageFormat.format(
+              resourceBundle.getString(BestandConstants.ERR_JSON_SYNTAX),
+              8, "\"")),
+                   e.getMessage());
+    }
+
+    Bestand.delete(bestand);
+  }
+
+  @Test
+  public void testLezen() throws BestandException {
+    var sequentieel = leesAlles(1);
+    var parallel    = leesAlles(3);
+
+    assertEquals("Lezen - aantal", 5000, sequentieel.size());
+    assertEquals("Lezen - naam", "Naam\n4999",
+                 ((JSONObject) sequentieel.get(4999)).get("naam"));
+    assertEquals("Lezen - parallel", sequentieel, parallel);
+
+    try (var jsonLines = new JsonLinesBestand.Builder().setBestand(BESTAND)
+                                                       .build()) {
+      assertEquals("Lezen - stream", sequentieel,
+                   jsonLines.stream().parallel()
+                            .collect(Collectors.toList()));
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2026 Marco de Booij
+ *
+ * Licensed under the EUPL, Version 1.2 or - as soon they will be approved by
+ * the European Commission - subsequent versions of the EUPL (the "Licence");
+ * you may not use this work except in compliance with the Licence. You may
+ * obtain a copy of the Licence at:
+ *
+ * https://joinup.ec.europa.eu/software/page/eupl
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the Licence is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the Licence for the specific language governing permissions and
+ * limitations under the Licence.
+ */
+package eu.debooy.doosutils.access;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * @author Marco de Booij
+ *
+ * Vergelijkt GZIPOutputStream met ParallelGzipUitvoer. Dit is geen test en
+ * wordt niet door surefire gestart. Starten met:
+ *
+ *   java -cp target/classes:target/test-classes
+ *        eu.debooy.doosutils.access.ParallelGzipBenchmark [bestand] [threads]
+ *
+ * Zonder bestand wordt 128 MB CSV gemaakt. De threads zijn een lijst zoals
+ * 1,2,4. Elke meting wordt 3 keer gedaan en de snelste telt.
+ */
+public final class ParallelGzipBenchmark {
+  private static final  int BUFFER  = 8192;
+  private static final  int RONDES  = 3;
+
+  private ParallelGzipBenchmark() {}
+
+  private static byte[] maakGegevens(int grootte) {
+    var tekst = new StringBuilder(grootte + 100);
+    var i     = 0;
+    while (tekst.length() < grootte) {
+      tekst.append(i).append(";\"naam ").append(i % 9973).append("\";")
+           .append(i * 31L % 100003).append(";")
+           .append(i % 7 == 0 ? "waar" : "onwaar").append('\n');
+      i++;
+    }
+
+    return tekst.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  public static void main(String[] args) throws IOException {
+    var gegevens  = args.length > 0
+                      ? Files.readAllBytes(Paths.get(args[0]))
+                      : maakGegevens(128 * 1024 * 1024);
+    var threads   = args.length > 1 ? args[1] : "1,2,4";
+    var doel      = Files.createTempFile("benchmark", ".gz");
+
+    System.out.printf("cpus=%d bytes=%d%n",
+                      Runtime.getRuntime().availableProcessors(),
+                      gegevens.length);
+    try {
+      meet("GZIPOutputStream", gegevens, doel, 0);
+      for (var aantal : threads.split(",")) {
+        meet("ParallelGzipUitvoer", gegevens, doel,
+             Integer.parseInt(aantal.trim()));
+      }
+    } finally {
+      Files.deleteIfExists(doel);
+    }
+  }
+
+  private static void meet(String naam, byte[] gegevens, Path doel,
+                           int threads)
+      throws IOException {
+    var snelste = Long.MAX_VALUE;
+    for (var ronde = 0; ronde < RONDES; ronde++) {
+      var begin = System.nanoTime();
+      try (var uitvoer = open(doel, threads)) {
+        for (var i = 0; i < gegevens.length; i += BUFFER) {
+          uitvoer.write(gegevens, i, Math.min(BUFFER, gegevens.length - i));
+        }
+      }
+      snelste = Math.min(snelste, System.nanoTime() - begin);
+    }
+
+    var seconden  = snelste / 1e9;
+    System.out.printf("%-20s threads=%d %6.2fs %7.1f MB/s grootte=%d%n",
+                      naam, threads, seconden,
+                      gegevens.length / 1e6 / seconden, Files.size(doel));
+  }
+
+  private static OutputStream open(Path doel, int threads)
+      throws IOException {
+    if (threads == 0) {
+      return new GZIPOutputStream(Files.newOutputStream(doel), BUFFER);
+    }
+
+    return new ParallelGzipUitvoer(Files.newOutputStream(doel), threads);
+  }
+}
@@ -24,8 +24,17 @@ import static org.junit.Assert.assertTrue;
 import eu.debooy.doosutils.exception.BestandException;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -73,6 +82,46 @@ public class TekstBestandTest {
     }
   }
 
+  @Test
+  public void testGemapt() throws BestandException {
+    var bestand = TEMP + File.separator + "testGemapt.txt";
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setCharset("UTF-8")
+                                                      .setLezen(false)
+                                                      .build()) {
+      tekstBestand.write("\u00e9\u00e9n\rtwee\r\n\ndrie");
+      tekstBestand.write("");
+      tekstBestand.write("vier\r");
+    }
+
+    List<String>  verwacht  = new ArrayList<>();
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setCharset("UTF-8")
+                                                      .build()) {
+      while (tekstBestand.hasNext()) {
+        verwacht.add(tekstBestand.next());
+      }
+    }
+
+    List<String>  gemapt    = new ArrayList<>();
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setCharset("UTF-8")
+                                                      .setGemapt(true)
+                                                      .build()) {
+      assertTrue("Gemapt - gemapt", tekstBestand.isGemapt());
+      while (tekstBestand.hasNext()) {
+        gemapt.add(tekstBestand.next());
+      }
+      assertTrue("Gemapt - EOF", tekstBestand.isEof());
+    }
+
+    assertEquals("Gemapt - lijnen", 6, verwacht.size());
+    assertEquals("Gemapt - \u00e9\u00e9n", "\u00e9\u00e9n", gemapt.get(0));
+    assertEquals("Gemapt - gelijk", verwacht, gemapt);
+
+    Bestand.delete(bestand);
+  }
+
   @Test
   public void testInvoerUitClasspath() {
     TekstBestand        tekstBestand  = null;
@@ -146,4 +195,200 @@ public class TekstBestandTest {
                    resourceBundle.getString(BestandConstants.ERR_BEST_EOF));
     }
   }
+
+  @Test
+  public void testStream() throws BestandException {
+    var bestand = TEMP + File.separator + "testStream.txt";
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setLezen(false)
+                                                      .build()) {
+      for (var i = 0; i < 10000; i++) {
+        tekstBestand.write("Lijn " + i + ((i % 7 == 0) ? "\rcr" : ""));
+      }
+    }
+
+    List<String>  sequentieel;
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .build()) {
+      sequentieel = tekstBestand.stream().collect(Collectors.toList());
+      assertTrue("Stream - EOF", tekstBestand.isEof());
+    }
+
+    List<String>  parallel;
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .build()) {
+      parallel  = tekstBestand.stream().parallel()
+                              .collect(Collectors.toList());
+      assertTrue("Stream - parallel EOF", tekstBestand.isEof());
+    }
+
+    try (var tekstBestand = new TekstBestand.Builder()
+                                            .setClassLoader(CLASSLOADER)
+                                            .setBestand("tekst.txt")
+                                            .build()) {
+      assertEquals("Stream - classpath", 2,
+                   tekstBestand.stream().parallel().count());
+    }
+
+    assertEquals("Stream - lijnen", 10000 + 1429,
+                 sequentieel.size());
+    assertEquals("Stream - parallel", sequentieel, parallel);
+
+    Bestand.delete(bestand);
+  }
+
+  @Test
+  public void testCompressie() throws BestandException, IOException {
+    var bestand = TEMP + File.separator + "tekst.txt.gz";
+    for (var i = 0; i < 2; i++) {
+      try (var tekstBestand = new TekstBestand.Builder().setAppend(true)
+                                                        .setBestand(bestand)
+                                                        .setLezen(false)
+                                                        .build()) {
+        for (var j = 0; j < 1000; j++) {
+          tekstBestand.write("lijn " + i + "-" + j);
+        }
+      }
+    }
+
+    var magic = Files.readAllBytes(Paths.get(bestand));
+    assertEquals("Compressie - magic", (byte) 0x1f, magic[0]);
+    assertEquals("Compressie - magic", (byte) 0x8b, magic[1]);
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setGemapt(true)
+                                                      .build()) {
+      assertEquals("Compressie - automatisch", Compressie.AUTOMATISCH,
+                   tekstBestand.getCompressie());
+      var lijnen  = tekstBestand.stream().parallel()
+                                .collect(Collectors.toList());
+      assertEquals("Compressie - lijnen", 2000, lijnen.size());
+      assertEquals("Compressie - lijn", "lijn 1-999", lijnen.get(1999));
+    }
+    Bestand.delete(bestand);
+
+    bestand = TEMP + File.separator + "tekst.deflate";
+    try (var tekstBestand =
+            new TekstBestand.Builder().setBestand(bestand)
+                                      .setCompressie(Compressie.DEFLATE)
+                                      .setLezen(false)
+                                      .build()) {
+      tekstBestand.write("Aap");
+      tekstBestand.write("Noot");
+    }
+    try (var tekstBestand =
+            new TekstBestand.Builder().setBestand(bestand)
+                                      .setCompressie(Compressie.DEFLATE)
+                                      .build()) {
+      assertEquals("Compressie - deflate", "Aap", tekstBestand.next());
+      assertEquals("Compressie - deflate", "Noot", tekstBestand.next());
+      assertFalse("Compressie - EOF", tekstBestand.hasNext());
+    }
+    Bestand.delete(bestand);
+  }
+
+  @Test
+  public void testCompressieOverschrijven()
+      throws BestandException, IOException {
+    var gz    = Paths.get(TEMP, "overschrijven.txt.gz");
+    var tekst = Paths.get(TEMP, "overschrijven.txt");
+    Files.write(gz, "niet gecomprimeerd".getBytes(StandardCharsets.UTF_8));
+    try (var uitvoer = new GZIPOutputStream(Files.newOutputStream(tekst))) {
+      uitvoer.write("oud".getBytes(StandardCharsets.UTF_8));
+    }
+
+    for (var bestand : new String[] {gz.toString(), tekst.toString()}) {
+      try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                        .setLezen(false)
+                                                        .build()) {
+        tekstBestand.write("nieuw");
+      }
+    }
+
+    var magic = Files.readAllBytes(gz);
+    assertEquals("Overschrijven - gz", (byte) 0x1f, magic[0]);
+    assertEquals("Overschrijven - gz", (byte) 0x8b, magic[1]);
+    assertEquals("Overschrijven - txt", "nieuw",
+                 Files.readAllLines(tekst, StandardCharsets.UTF_8).get(0));
+
+    Files.delete(gz);
+    Files.delete(tekst);
+  }
+
+  @Test
+  public void testParallelGzip() throws BestandException, IOException {
+    var bestand = TEMP + File.separator + "parallel.txt.gz";
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .setLezen(false)
+                                                      .setThreads(3)
+                                                      .build()) {
+      assertEquals("Parallel Gzip - threads", 3, tekstBestand.getThreads());
+      for (var i = 0; i < 200000; i++) {
+        tekstBestand.write("lijn " + i + " met wat tekst om te comprimeren");
+      }
+    }
+
+    try (var invoer  = new GZIPInputStream(
+                           Files.newInputStream(Paths.get(bestand)))) {
+      var lijnen  = new String(invoer.readAllBytes(), StandardCharsets.UTF_8)
+                        .split(System.lineSeparator());
+      assertEquals("Parallel Gzip - lijnen", 200000, lijnen.length);
+      assertEquals("Parallel Gzip - lijn",
+                   "lijn 199999 met wat tekst om te comprimeren",
+                   lijnen[199999]);
+    }
+
+    try (var tekstBestand = new TekstBestand.Builder().setBestand(bestand)
+                                                      .build()) {
+      assertEquals("Parallel Gzip - lezen", 200000, tekstBestand.stream()
+                                                                .count());
+    }
+    Bestand.delete(bestand);
+
+    new TekstBestand.Builder().setBestand(bestand).setLezen(false)
+                              .setThreads(2).build().close();
+    try (var invoer  = new GZIPInputStream(
+                           Files.newInputStream(Paths.get(bestand)))) {
+      assertEquals("Parallel Gzip - leeg", -1, invoer.read());
+    }
+
+    var uitvoer = BestandFabriek.openUitvoer(Paths.get(bestand), false,
+                                             Compressie.GZIP, 2);
+    uitvoer.close();
+    try {
+      uitvoer.write('x');
+      fail("Parallel Gzip - na close gelukt :-(");
+    } catch (IOException e) {
+      assertEquals("Parallel Gzip - na close", "Stream closed",
+                   e.getMessage());
+    }
+    Bestand.delete(bestand);
+  }
+
+  @Test
+  public void testZip() throws BestandException {
+    var zip = TEMP + File.separator + "testTekst.zip";
+    new ZipBestand.Builder().setLezen(false).setZip(zip).build()
+                  .inpakken(TEMP + File.separator + "tekst.txt");
+
+    try (var tekstBestand = new TekstBestand.Builder().setBestand("tekst.txt")
+                                                      .setGemapt(true)
+                                                      .setZip(zip)
+                                                      .build()) {
+      assertEquals("Zip - naam", zip + "!/tekst.txt",
+                   tekstBestand.getBestand());
+      assertEquals("Zip - lijnen", List.of("lijn 1", "lijn 2"),
+                   tekstBestand.stream().parallel()
+                               .collect(Collectors.toList()));
+    }
+
+    try {
+      new TekstBestand.Builder().setBestand("onbekend.txt").setZip(zip)
+                                .build();
+      fail("Zip - onbekend gelukt :-(");
+    } catch (BestandException e) {
+      assertTrue("Zip - onbekend", e.getMessage().contains("onbekend.txt"));
+    }
+
+    Bestand.delete(zip);
+  }
 }
@@ -21,11 +21,20 @@ import static eu.debooy.doosutils.access.CsvBestandTest.TEMP;
 import eu.debooy.doosutils.exception.BestandException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 import static junit.framework.TestCase.fail;
 import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -171,6 +180,149 @@ public class ZipBestandTest {
     }
   }
 
+  @Test
+  public void testInpakkenBehouden() throws BestandException, IOException {
+    var zipPad  = Paths.get(TEMP, "test6.zip");
+    var extra   = new byte[] {0x34, 0x12, 2, 0, 'a', 'b'};
+    var inhoud  = new StringBuilder();
+    for (var i = 0; i < 20000; i++) {
+      inhoud.append("lijn ").append(i % 977).append(" met tekst\n");
+    }
+    try (var uitvoer = new ZipOutputStream(Files.newOutputStream(zipPad))) {
+      uitvoer.setLevel(Deflater.BEST_SPEED);
+      var entry = new ZipEntry("oud.txt");
+      entry.setExtra(extra);
+      entry.setComment("commentaar");
+      uitvoer.putNextEntry(entry);
+      uitvoer.write(inhoud.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    long  gecomprimeerd;
+    try (var bron = new ZipFile(zipPad.toFile())) {
+      gecomprimeerd = bron.getEntry("oud.txt").getCompressedSize();
+    }
+
+    new ZipBestand.Builder().setLezen(false).setNiveau(9)
+                            .setZip(zipPad.toString()).build()
+                            .inpakken(TEMP + File.separator + "test1.csv");
+    try (var bron = new ZipFile(zipPad.toFile())) {
+      var oud = bron.getEntry("oud.txt");
+      assertEquals("Behouden - entries", 2, bron.size());
+      assertTrue("Behouden - herschreven",
+                 oud.getCompressedSize() < gecomprimeerd);
+      assertTrue("Behouden - extra",
+                 Arrays.equals(extra, Arrays.copyOf(oud.getExtra(),
+                                                    extra.length)));
+      assertEquals("Behouden - commentaar", "commentaar", oud.getComment());
+      gecomprimeerd = oud.getCompressedSize();
+    }
+
+    new ZipBestand.Builder().setLezen(false).setZip(zipPad.toString())
+                            .build()
+                            .inpakken(TEMP + File.separator + "tekst1.txt");
+    try (var bron = new ZipFile(zipPad.toFile())) {
+      var oud = bron.getEntry("oud.txt");
+      assertEquals("Behouden - entries 2", 3, bron.size());
+      assertEquals("Behouden - niet herschreven", gecomprimeerd,
+                   oud.getCompressedSize());
+      try (var invoer = bron.getInputStream(oud)) {
+        assertEquals("Behouden - inhoud", inhoud.toString(),
+                     new String(invoer.readAllBytes(),
+                                StandardCharsets.UTF_8));
+      }
+    }
+
+    Files.delete(zipPad);
+  }
+
+  @Test
+  public void testInpakkenStored() throws BestandException, IOException {
+    var zipPad  = Paths.get(TEMP, "test5.zip");
+    var tekst   = TEMP + File.separator + "tekst1.txt";
+    var csv     = TEMP + File.separator + "test1.csv";
+
+    new ZipBestand.Builder().setLezen(false).setZip(zipPad.toString())
+                            .build().inpakken(tekst);
+    new ZipBestand.Builder().setLezen(false).setMethode(ZipEntry.STORED)
+                            .setZip(zipPad.toString()).build().inpakken(csv);
+
+    try (var bron = new ZipFile(zipPad.toFile())) {
+      assertEquals("Stored - entries", 2, bron.size());
+      var deflated  = bron.getEntry("tekst1.txt");
+      var stored    = bron.getEntry("test1.csv");
+      assertEquals("Stored - oud", ZipEntry.DEFLATED, deflated.getMethod());
+      assertEquals("Stored - nieuw", ZipEntry.STORED, stored.getMethod());
+      try (var invoer = bron.getInputStream(deflated)) {
+        assertTrue("Stored - inhoud oud",
+                   Arrays.equals(Files.readAllBytes(Paths.get(tekst)),
+                                 invoer.readAllBytes()));
+      }
+      try (var invoer = bron.getInputStream(stored)) {
+        assertTrue("Stored - inhoud nieuw",
+                   Arrays.equals(Files.readAllBytes(Paths.get(csv)),
+                                 invoer.readAllBytes()));
+      }
+    }
+
+    Files.delete(zipPad);
+  }
+
+  @Test
+  public void testInpakkenMap() throws BestandException, IOException {
+    var map     = Paths.get(TEMP, "inpakken");
+    var zipPad  = Paths.get(TEMP, "test4.zip");
+    var tijd    = FileTime.fromMillis(1262304000000L);
+    Files.createDirectories(map.resolve("sub/leeg"));
+    Files.write(map.resolve("a.txt"), "Aap".getBytes(StandardCharsets.UTF_8));
+    Files.write(map.resolve("sub/b.txt"),
+                "Noot".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(map.resolve("sub/b.txt"), tijd);
+
+    var zip = new ZipBestand.Builder().setLezen(false)
+                                      .setMethode(ZipEntry.STORED)
+                                      .setZip(zipPad.toString())
+                                      .build();
+    zip.inpakkenMap(map.toString());
+    Files.write(map.resolve("a.txt"), "Mies".getBytes(StandardCharsets.UTF_8));
+    new ZipBestand.Builder().setLezen(false)
+                            .setNiveau(9)
+                            .setZip(zipPad.toString())
+                            .build()
+                            .inpakken(List.of(map.resolve("a.txt").toString(),
+                                              map.resolve("sub/b.txt")
+                                                 .toString()));
+
+    try (var bron = new ZipFile(zipPad.toFile())) {
+      assertEquals("Map - entries", 7, bron.size());
+      var b = bron.getEntry("inpakken/sub/b.txt");
+      assertEquals("Map - methode", ZipEntry.STORED, b.getMethod());
+      assertEquals("Map - tijd", tijd, b.getLastModifiedTime());
+      assertTrue("Map - leeg", bron.getEntry("inpakken/sub/leeg/")
+                                   .isDirectory());
+      assertEquals("Map - a.txt", ZipEntry.DEFLATED,
+                   bron.getEntry("a.txt").getMethod());
+      try (var invoer = bron.getInputStream(bron.getEntry("a.txt"))) {
+        assertEquals("Map - inhoud", "Mies",
+                     new String(invoer.readAllBytes(),
+                                StandardCharsets.UTF_8));
+      }
+      try (var invoer = bron.getInputStream(b)) {
+        assertEquals("Map - kopie", "Noot",
+                     new String(invoer.readAllBytes(),
+                                StandardCharsets.UTF_8));
+      }
+    }
+
+    try {
+      zip.inpakkenMap(map.resolve("a.txt").toString());
+      fail("BestandsException missing");
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("MAP-0002: "));
+    }
+
+    Bestand.delete(map.toString());
+    Files.delete(zipPad);
+  }
+
   @Test
   public void testUitpakken() {
     var zip = new ZipBestand.Builder()
@@ -196,4 +348,102 @@ public class ZipBestandTest {
       fail(e.getLocalizedMessage());
     }
   }
+
+  @Test
+  public void testUitpakkenDirectories() throws BestandException, IOException {
+    var basis   = Paths.get(TEMP, "uitpakken");
+    var zipPad  = Paths.get(TEMP, "test2.zip");
+    var tijd    = FileTime.fromMillis(1262304000000L);
+    var inhoud  = new byte[3 * 1024 * 1024 + 17];
+    for (var i = 0; i < inhoud.length; i++) {
+      inhoud[i] = (byte) (i % 251);
+    }
+
+    try (var uitvoer = new ZipOutputStream(Files.newOutputStream(zipPad))) {
+      var entry = new ZipEntry("map/");
+      entry.setLastModifiedTime(tijd);
+      uitvoer.putNextEntry(entry);
+      entry     = new ZipEntry("map/sub/groot.bin");
+      entry.setLastModifiedTime(tijd);
+      uitvoer.putNextEntry(entry);
+      uitvoer.write(inhoud);
+      entry     = new ZipEntry("map/leeg.txt");
+      entry.setLastModifiedTime(tijd);
+      uitvoer.putNextEntry(entry);
+    }
+
+    new ZipBestand.Builder().setZip(zipPad.toString()).build()
+                            .uitpakken(basis.toString());
+
+    var groot = basis.resolve("map/sub/groot.bin");
+    assertTrue("Directories - groot",
+               Arrays.equals(inhoud, Files.readAllBytes(groot)));
+    assertEquals("Directories - leeg", 0L,
+                 Files.size(basis.resolve("map/leeg.txt")));
+    assertEquals("Directories - tijd bestand", tijd,
+                 Files.getLastModifiedTime(groot));
+    assertEquals("Directories - tijd map", tijd,
+                 Files.getLastModifiedTime(basis.resolve("map")));
+
+    try (var uitvoer = new ZipOutputStream(Files.newOutputStream(zipPad))) {
+      uitvoer.putNextEntry(new ZipEntry("../buiten.txt"));
+      uitvoer.write("buiten".getBytes(StandardCharsets.UTF_8));
+    }
+    try {
+      new ZipBestand.Builder().setZip(zipPad.toString()).build()
+                              .uitpakken(basis.toString());
+      fail("BestandsException missing");
+    } catch (BestandException e) {
+      assertTrue(e.getLocalizedMessage().startsWith("ZIP-0001: "));
+    }
+    assertTrue("Directories - buiten",
+               Files.notExists(Paths.get(TEMP, "buiten.txt")));
+
+    Bestand.delete(basis.toString());
+    Files.delete(zipPad);
+  }
+
+  @Test
+  public void testUitpakkenParallel() throws BestandException, IOException {
+    var basis   = Paths.get(TEMP, "parallel");
+    var zipPad  = Paths.get(TEMP, "test3.zip");
+    try (var uitvoer = new ZipOutputStream(Files.newOutputStream(zipPad))) {
+      for (var i = 0; i < 50; i++) {
+        uitvoer.putNextEntry(new ZipEntry("map" + (i % 5) + "/bestand" + i
+                                          + (i % 10 == 0 ? ".skip" : ".txt")));
+        for (var j = 0; j <= i; j++) {
+          uitvoer.write(("Lijn " + j + " van " + i + "\n")
+                          .getBytes(StandardCharsets.UTF_8));
+        }
+      }
+    }
+
+    var zip       = new ZipBestand.Builder().setThreads(4)
+                                            .setZip(zipPad.toString())
+                                            .build();
+    assertEquals("Parallel - threads", 4, zip.getThreads());
+    var resultaat = zip.uitpakken(basis.toString(),
+                                  entry -> !entry.getName().endsWith(".skip"));
+
+    var bytes = 0L;
+    for (var i = 0; i < 50; i++) {
+      var bestand = basis.resolve("map" + (i % 5) + "/bestand" + i
+                                  + (i % 10 == 0 ? ".skip" : ".txt"));
+      if (i % 10 == 0) {
+        assertTrue("Parallel - skip", Files.notExists(bestand));
+        continue;
+      }
+      var lijnen  = Files.readAllLines(bestand, StandardCharsets.UTF_8);
+      assertEquals("Parallel - lijnen", i + 1, lijnen.size());
+      assertEquals("Parallel - lijn", "Lijn " + i + " van " + i,
+                   lijnen.get(i));
+      bytes      += Files.size(bestand);
+    }
+    assertEquals("Parallel - aantal", 45, resultaat.getAantal());
+    assertEquals("Parallel - bytes", bytes, resultaat.getBytes());
+    assertTrue("Parallel - duur", !resultaat.getDuur().isNegative());
+
+    Bestand.delete(basis.toString());
+    Files.delete(zipPad);
+  }
 }